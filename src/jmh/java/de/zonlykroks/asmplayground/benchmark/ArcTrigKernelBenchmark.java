@@ -0,0 +1,64 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.impl.modes.ArcSinCosTanRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Per-call cost of every {@link ArcSinCosTanRedirectMode} kernel, one forked JVM per mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ArcTrigKernelBenchmark {
+
+    @Param({"POLY", "LUT", "APACHE", "JDK"})
+    public ArcSinCosTanRedirectMode mode;
+
+    private double[] unitInputs;
+    private double[] atanInputs;
+    private DoubleUnaryOperator asin;
+    private DoubleUnaryOperator acos;
+    private DoubleUnaryOperator atan;
+
+    @Setup
+    public void setup() {
+        unitInputs = BenchmarkInputs.uniform(-1.0, 1.0);
+        // atan also takes the 1/x branch, so cover arguments outside [-1, 1]
+        atanInputs = BenchmarkInputs.uniform(-16.0, 16.0);
+        asin = FastMath.asinKernel(mode);
+        acos = FastMath.acosKernel(mode);
+        atan = FastMath.atanKernel(mode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void asin(Blackhole blackhole) {
+        run(asin, unitInputs, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void acos(Blackhole blackhole) {
+        run(acos, unitInputs, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void atan(Blackhole blackhole) {
+        run(atan, atanInputs, blackhole);
+    }
+
+    private static void run(DoubleUnaryOperator kernel, double[] inputs, Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume(kernel.applyAsDouble(x));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.math.batch.BatchKernels;
+import de.zonlykroks.asmplayground.math.batch.ScalarBatchKernels;
+import de.zonlykroks.asmplayground.math.batch.VectorBatchKernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-element cost of the batch kernels, scalar loop against the Vector API implementation.
+ * The forks get the incubator module explicitly, so both implementations run in every environment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class BatchKernelBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String implementation;
+
+    private BatchKernels kernels;
+    private double[] angles;
+    private double[] squares;
+    private double[] out;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+
+    @Setup
+    public void setup() {
+        kernels = "vector".equals(implementation) ? new VectorBatchKernels() : new ScalarBatchKernels();
+        angles = BenchmarkInputs.uniform(-4 * Math.PI, 4 * Math.PI);
+        squares = BenchmarkInputs.uniform(0.0, 256.0);
+        out = new double[BenchmarkInputs.SIZE];
+        x = new double[BenchmarkInputs.SIZE];
+        y = new double[BenchmarkInputs.SIZE];
+        z = new double[BenchmarkInputs.SIZE];
+    }
+
+    @Setup(Level.Invocation)
+    public void resetVectors() {
+        // normalize works in place, start every invocation from the same non-unit vectors
+        System.arraycopy(angles, 0, x, 0, x.length);
+        System.arraycopy(squares, 0, y, 0, y.length);
+        System.arraycopy(angles, 0, z, 0, z.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] sin() {
+        kernels.sin(angles, out, 0, angles.length);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] cos() {
+        kernels.cos(angles, out, 0, angles.length);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] sqrt() {
+        kernels.sqrt(squares, out, 0, squares.length);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public double[] normalize() {
+        kernels.normalize(x, y, z, 0, x.length);
+        return x;
+    }
+}
@@ -0,0 +1,33 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pre-generated, seeded input arrays shared by the JMH benchmarks, so input generation
+ * never ends up inside the measured loop and every fork sees the same values.
+ */
+public final class BenchmarkInputs {
+    public static final int SIZE = 4096;
+    private static final long SEED = 0x5EEDL;
+
+    private BenchmarkInputs() {
+    }
+
+    public static double[] uniform(double min, double max) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[] values = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextDouble(min, max);
+        }
+        return values;
+    }
+
+    public static float[] uniformFloat(float min, float max) {
+        double[] values = uniform(min, max);
+        float[] floats = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            floats[i] = (float) values[i];
+        }
+        return floats;
+    }
+}
@@ -0,0 +1,69 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.math.collision.FastCollision;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FastCollision} box and ray tests over a fixed set of boxes laid out as structure of arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FastCollisionBenchmark {
+
+    private double[] minX, minY, minZ;
+    private double[] size;
+    private double[] dirX, dirY, dirZ;
+
+    @Setup
+    public void setup() {
+        minX = BenchmarkInputs.uniform(-8.0, 8.0);
+        minY = shift(BenchmarkInputs.uniform(-8.0, 8.0), 1);
+        minZ = shift(BenchmarkInputs.uniform(-8.0, 8.0), 2);
+        size = shift(BenchmarkInputs.uniform(0.1, 4.0), 3);
+        dirX = shift(BenchmarkInputs.uniform(-1.0, 1.0), 4);
+        dirY = shift(BenchmarkInputs.uniform(-1.0, 1.0), 5);
+        dirZ = shift(BenchmarkInputs.uniform(-1.0, 1.0), 6);
+    }
+
+    // All arrays share one seed, rotate them so the components are not correlated
+    private static double[] shift(double[] values, int by) {
+        double[] shifted = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            shifted[i] = values[(i + by) % values.length];
+        }
+        return shifted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void intersects(Blackhole blackhole) {
+        for (int i = 0; i < BenchmarkInputs.SIZE; i++) {
+            // Box i against its neighbour i + 1
+            int j = (i + 1) % BenchmarkInputs.SIZE;
+            blackhole.consume(FastCollision.intersects(
+                    minX[i], minY[i], minZ[i],
+                    minX[i] + size[i], minY[i] + size[i], minZ[i] + size[i],
+                    minX[j], minY[j], minZ[j],
+                    minX[j] + size[j], minY[j] + size[j], minZ[j] + size[j]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void rayIntersectsBox(Blackhole blackhole) {
+        for (int i = 0; i < BenchmarkInputs.SIZE; i++) {
+            blackhole.consume(FastCollision.rayIntersectsBox(
+                    0.0, 0.0, 0.0,
+                    dirX[i], dirY[i], dirZ[i],
+                    minX[i], minY[i], minZ[i],
+                    minX[i] + size[i], minY[i] + size[i], minZ[i] + size[i]));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.math.FastVec3;
+import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FastVec3#normalize(Vec3)} against the vanilla {@link Vec3#normalize()} it replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FastVec3Benchmark {
+
+    private Vec3[] vectors;
+
+    @Setup
+    public void setup() {
+        double[] xs = BenchmarkInputs.uniform(-64.0, 64.0);
+        double[] ys = BenchmarkInputs.uniform(-64.0, 64.0);
+        double[] zs = BenchmarkInputs.uniform(-64.0, 64.0);
+        vectors = new Vec3[BenchmarkInputs.SIZE];
+        for (int i = 0; i < vectors.length; i++) {
+            // Shift the component arrays against each other, they share the same seed
+            vectors[i] = new Vec3(xs[i], ys[(i + 1) % xs.length], zs[(i + 2) % xs.length]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void fast(Blackhole blackhole) {
+        for (Vec3 vec : vectors) {
+            blackhole.consume(FastVec3.normalize(vec));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void vanilla(Blackhole blackhole) {
+        for (Vec3 vec : vectors) {
+            blackhole.consume(vec.normalize());
+        }
+    }
+}
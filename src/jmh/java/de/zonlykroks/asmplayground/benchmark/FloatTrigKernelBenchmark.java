@@ -0,0 +1,48 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a redirected {@code Mth.sin(F)F} call site costs: the float kernel against the old
+ * widen, double kernel, narrow sequence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FloatTrigKernelBenchmark {
+
+    @Param({"PIECEWISE", "RIVENS", "TAYLOR", "POLY", "LUT", "APACHE", "JDK"})
+    public SinRedirectMode mode;
+
+    private float[] inputs;
+
+    @Setup
+    public void setup() {
+        inputs = BenchmarkInputs.uniformFloat((float) (-4 * Math.PI), (float) (4 * Math.PI));
+        FastMath.useModes(FastMath.sqrtMode(), mode, FastMath.arcSinCosTanMode());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void floatKernel(Blackhole blackhole) {
+        for (float x : inputs) {
+            blackhole.consume(FastMath.sin(x));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void widenedDoubleKernel(Blackhole blackhole) {
+        for (float x : inputs) {
+            blackhole.consume((float) FastMath.sin((double) x));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.math.FastMath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Floor-then-cast as Minecraft writes it against the integer floor kernels behind optimizeFloorToInt.
+ * {@code mathFloorCast} is the HotSpot baseline, Math.floor compiles to the roundsd intrinsic where
+ * SSE4.1 is available. The kernels are only worth enabling where they beat it on the target CPU.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FloorBenchmark {
+
+    /** "blocks" is the usual world coordinate range, "unit" keeps everything around zero where the sign flips. */
+    @Param({"blocks", "unit"})
+    public String range;
+
+    private double[] inputs;
+    private float[] floatInputs;
+
+    @Setup
+    public void setup() {
+        double bound = "blocks".equals(range) ? 30_000_000.0 : 1.0;
+        inputs = BenchmarkInputs.uniform(-bound, bound);
+        floatInputs = BenchmarkInputs.uniformFloat((float) -bound, (float) bound);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void mathFloorCast(Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume((int) Math.floor(x));
+        }
+    }
+
+    /** What optimizeMathFloor alone makes of the idiom. */
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void fastMathFloorCast(Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume((int) FastMath.floor(x));
+        }
+    }
+
+    /** Mth.floor(double), copied so the benchmark runs without Minecraft on the classpath. */
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void mthFloor(Blackhole blackhole) {
+        for (double x : inputs) {
+            int i = (int) x;
+            blackhole.consume(x < i ? i - 1 : i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void floorInt(Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume(FastMath.floorInt(x));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void mathFloorCastFloat(Blackhole blackhole) {
+        for (float x : floatInputs) {
+            blackhole.consume((int) Math.floor(x));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void floorIntFloat(Blackhole blackhole) {
+        for (float x : floatInputs) {
+            blackhole.consume(FastMath.floorInt(x));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void mathFloorCastLong(Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume((long) Math.floor(x));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void floorLong(Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume(FastMath.floorLong(x));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.impl.modes.SqrtRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Per-call cost of every {@link SqrtRedirectMode} kernel, JDK being the plain intrinsic baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SqrtKernelBenchmark {
+
+    @Param({"LUT", "LOG_LUT", "INV_SQRT", "JDK"})
+    public SqrtRedirectMode mode;
+
+    /** "lut" stays inside the default LUT range, "wide" also exercises the Math.sqrt fallback. */
+    @Param({"lut", "wide"})
+    public String range;
+
+    private double[] inputs;
+    private DoubleUnaryOperator sqrt;
+
+    @Setup
+    public void setup() {
+        inputs = "lut".equals(range)
+                ? BenchmarkInputs.uniform(0.0, 256.0)
+                : BenchmarkInputs.uniform(0.0, 65536.0);
+        sqrt = FastMath.sqrtKernel(mode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void sqrt(Blackhole blackhole) {
+        DoubleUnaryOperator kernel = sqrt;
+        for (double x : inputs) {
+            blackhole.consume(kernel.applyAsDouble(x));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Per-call cost of every {@link SinRedirectMode} kernel. Each mode runs in its own forked JVM,
+ * so the kernel call site stays monomorphic just like a redirected call site in game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TrigKernelBenchmark {
+
+    @Param({"PIECEWISE", "RIVENS", "TAYLOR", "POLY", "LUT", "APACHE", "JDK"})
+    public SinRedirectMode mode;
+
+    private double[] inputs;
+    private DoubleUnaryOperator sin;
+    private DoubleUnaryOperator cos;
+    private DoubleUnaryOperator tan;
+
+    @Setup
+    public void setup() {
+        inputs = BenchmarkInputs.uniform(-4 * Math.PI, 4 * Math.PI);
+        sin = FastMath.sinKernel(mode);
+        cos = FastMath.cosKernel(mode);
+        tan = FastMath.tanKernel(mode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void sin(Blackhole blackhole) {
+        run(sin, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void cos(Blackhole blackhole) {
+        run(cos, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.SIZE)
+    public void tan(Blackhole blackhole) {
+        run(tan, blackhole);
+    }
+
+    private void run(DoubleUnaryOperator kernel, Blackhole blackhole) {
+        for (double x : inputs) {
+            blackhole.consume(kernel.applyAsDouble(x));
+        }
+    }
+}
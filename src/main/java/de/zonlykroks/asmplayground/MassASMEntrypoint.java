@@ -1,9 +1,8 @@
 package de.zonlykroks.asmplayground;
 
+import de.zonlykroks.asmplayground.benchmark.BackgroundBenchmark;
 import de.zonlykroks.asmplayground.benchmark.FastMathBenchmark;
 import de.zonlykroks.asmplayground.visitor.*;
-import de.zonlykroks.massasmer.MassASMTransformer;
-import de.zonlykroks.massasmer.filter.Filters;
 import org.objectweb.asm.Opcodes;
 
 public class MassASMEntrypoint implements Runnable {
@@ -13,42 +12,17 @@ public class MassASMEntrypoint implements Runnable {
     public void run() {
         System.out.println("MassASMEntrypoint started");
 
-        FastMathBenchmark.testFastMathSystem();
-
-        MassASMTransformer.registerVisitor(
-                "faster-math-sin-cos-tan",
-                Filters.contains("net.minecraft"),
-                (className, nextVisitor) -> new SinCosTanReplaceTransformer(Opcodes.ASM9, nextVisitor)
-        );
-
-        MassASMTransformer.registerVisitor(
-                "faster-math-sqrt",
-                Filters.contains("net.minecraft"),
-                (className, nextVisitor) -> new SqrtReplaceTransformer(Opcodes.ASM9, nextVisitor)
-        );
-
-        MassASMTransformer.registerVisitor(
-                "faster-vec3d-normalize",
-                Filters.contains("net.minecraft"),
-                (className, nextVisitor) -> new Vec3dReplaceTransformer(Opcodes.ASM9, nextVisitor)
-        );
-
-        MassASMTransformer.registerVisitor(
-                "faster-explosion-calc",
-                Filters.contains("net.minecraft"),
-                (className, nextVisitor) -> new ExplosionReplaceTransformer(Opcodes.ASM9, nextVisitor)
-        );
-
-        MassASMTransformer.registerVisitor(
-                "faster-math-arc-sin-cos-tan",
-                Filters.contains("net.minecraft"),
-                (className, nextVisitor) -> new ArcSinCosTanReplaceTransformer(Opcodes.ASM9, nextVisitor)
-        );
-
-        MassASMTransformer.registerVisitor(
-                "faster-aabb-intersect",
-                Filters.contains("net.minecraft"),
-                (className, nextVisitor) -> new AABBIntersectsCoordsTransformer(Opcodes.ASM9, nextVisitor)
-        );
+        // Never block boot on the benchmark, AUTO runs on the JDK kernels until the background run is done
+        if (FastMathBenchmark.applyCachedModes()) {
+            BackgroundBenchmark.schedule();
+        }
+
+        new TransformPipeline()
+                .add("faster-math-redirects", next -> new RedirectTransformer(Opcodes.ASM9, next))
+                .add("floor-to-int", next -> new FloorCastTransformer(Opcodes.ASM9, next))
+                .add("fused-math-sin-cos", next -> new SinCosFusionTransformer(Opcodes.ASM9, next))
+                .add("faster-explosion-calc", next -> new ExplosionReplaceTransformer(Opcodes.ASM9, next))
+                .add("faster-aabb-intersect", next -> new AABBIntersectsCoordsTransformer(Opcodes.ASM9, next))
+                .register("asm-playground");
     }
 }
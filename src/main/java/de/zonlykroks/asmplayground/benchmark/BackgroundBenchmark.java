@@ -0,0 +1,50 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the AUTO benchmark on a low-priority daemon thread once the server is up, instead of blocking boot.
+ * Until it finishes, AUTO functions run on the JDK kernels; the winners are swapped in through
+ * {@link de.zonlykroks.asmplayground.math.FastMath#useModes}.
+ */
+public class BackgroundBenchmark {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+
+    private static volatile boolean pending;
+
+    /**
+     * Marks the benchmark as needed, it starts with the next {@link #onServerStarted()}.
+     */
+    public static void schedule() {
+        pending = true;
+    }
+
+    public static void onServerStarted() {
+        if (pending) start();
+    }
+
+    /**
+     * Starts a benchmark run now, unless one is already running.
+     */
+    public static void start() {
+        if (!RUNNING.compareAndSet(false, true)) return;
+        pending = false;
+
+        Thread thread = new Thread(() -> {
+            try {
+                FastMathBenchmark.testFastMathSystem();
+            } catch (RuntimeException e) {
+                LOGGER.error("AUTO benchmark failed, keeping the current kernels", e);
+            } finally {
+                RUNNING.set(false);
+            }
+        }, "ASMPlayground AUTO Benchmark");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+}
@@ -0,0 +1,113 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk record of the AUTO benchmark: measured timings and errors per kernel plus the modes that won,
+ * tagged with the {@link BenchmarkFingerprint} they were measured on. Delete the file or set
+ * {@link ModConfig#rebenchmarkOnNextBoot} to force a fresh run.
+ */
+public class BenchmarkCache {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Path CACHE_PATH = ModConfig.configDir().resolve("asm_playground_benchmark.json");
+
+    private BenchmarkFingerprint fingerprint;
+    private Map<String, List<CachedKernel>> results = new LinkedHashMap<>();
+    private Map<String, String> chosenModes = new LinkedHashMap<>();
+
+    private transient boolean dirty;
+
+    public record CachedKernel(String mode, double nsPerCall, double maxAbsError, double maxUlpError) {
+    }
+
+    private BenchmarkCache(BenchmarkFingerprint fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Loads the cached results for {@code fingerprint}, or returns an empty cache if there are none,
+     * they can't be read or they were measured on a different fingerprint.
+     */
+    public static BenchmarkCache load(BenchmarkFingerprint fingerprint) {
+        if (Files.exists(CACHE_PATH)) {
+            try (Reader reader = Files.newBufferedReader(CACHE_PATH)) {
+                BenchmarkCache cache = GSON.fromJson(reader, BenchmarkCache.class);
+                if (cache != null && fingerprint.equals(cache.fingerprint) && cache.results != null) {
+                    if (cache.chosenModes == null) cache.chosenModes = new LinkedHashMap<>();
+                    return cache;
+                }
+                LOGGER.info("Benchmark cache was recorded on {}, re-benchmarking", cache == null ? null : cache.fingerprint);
+            } catch (IOException | JsonParseException e) {
+                LOGGER.warn("Failed to read benchmark cache, re-benchmarking: {}", e.getMessage());
+            }
+        }
+        return new BenchmarkCache(fingerprint);
+    }
+
+    public static BenchmarkCache empty(BenchmarkFingerprint fingerprint) {
+        return new BenchmarkCache(fingerprint);
+    }
+
+    /**
+     * @return the cached candidates for {@code key}, or null if there are none or they no longer map to {@code type}
+     */
+    public <M extends Enum<M>> List<KernelCandidate<M>> candidates(String key, Class<M> type) {
+        List<CachedKernel> cached = results.get(key);
+        if (cached == null || cached.isEmpty()) return null;
+
+        List<KernelCandidate<M>> candidates = new ArrayList<>(cached.size());
+        try {
+            for (CachedKernel kernel : cached) {
+                candidates.add(new KernelCandidate<>(Enum.valueOf(type, kernel.mode()), kernel.nsPerCall(),
+                        new ErrorProfile(kernel.maxAbsError(), kernel.maxUlpError())));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return candidates;
+    }
+
+    public void putCandidates(String key, List<? extends KernelCandidate<?>> candidates) {
+        List<CachedKernel> cached = new ArrayList<>(candidates.size());
+        for (KernelCandidate<?> candidate : candidates) {
+            cached.add(new CachedKernel(candidate.mode().name(), candidate.nsPerCall(),
+                    candidate.error().maxAbsError(), candidate.error().maxUlpError()));
+        }
+        results.put(key, cached);
+        dirty = true;
+    }
+
+    public void putChosenMode(String key, Enum<?> mode) {
+        if (!mode.name().equals(chosenModes.put(key, mode.name()))) dirty = true;
+    }
+
+    public void saveIfChanged() {
+        if (!dirty) return;
+        try {
+            Files.createDirectories(CACHE_PATH.getParent());
+            try (Writer writer = Files.newBufferedWriter(CACHE_PATH)) {
+                GSON.toJson(this, writer);
+            }
+            dirty = false;
+            LOGGER.info("Benchmark results cached for {}", fingerprint);
+        } catch (IOException e) {
+            LOGGER.error("Failed to save benchmark cache: {}", e.getMessage());
+        }
+    }
+}
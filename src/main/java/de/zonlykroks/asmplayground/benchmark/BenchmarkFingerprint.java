@@ -0,0 +1,92 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Everything that can change which kernel wins the AUTO benchmark. Cached results are only reused
+ * when the fingerprint of the running JVM matches the one they were measured on.
+ *
+ * @param sqrtLut the uniform sqrt table's min, max, step and size, which decide both its speed and its error
+ */
+public record BenchmarkFingerprint(String cpuModel,
+                                   int cores,
+                                   String jvmVendor,
+                                   String jvmVersion,
+                                   List<String> jvmFlags,
+                                   String modVersion,
+                                   List<Double> sqrtLut) {
+
+    private static final String MOD_ID = "asmplayground";
+
+    public static BenchmarkFingerprint current() {
+        return new BenchmarkFingerprint(
+                detectCpuModel(),
+                Runtime.getRuntime().availableProcessors(),
+                System.getProperty("java.vm.vendor"),
+                System.getProperty("java.vm.version"),
+                detectJvmFlags(),
+                detectModVersion(),
+                sqrtLutSettings()
+        );
+    }
+
+    private static List<Double> sqrtLutSettings() {
+        ModConfig config = ModConfig.INSTANCE;
+        return List.of(config.sqrtMinLutValue, config.sqrtMaxLutValue, config.sqrtLutStepSize, (double) config.sqrtLutSize);
+    }
+
+    private static String detectCpuModel() {
+        String arch = System.getProperty("os.arch");
+
+        // Linux
+        Path cpuInfo = Path.of("/proc/cpuinfo");
+        if (Files.isReadable(cpuInfo)) {
+            try (Stream<String> lines = Files.lines(cpuInfo)) {
+                String model = lines.filter(line -> line.startsWith("model name"))
+                        .map(line -> line.substring(line.indexOf(':') + 1).trim())
+                        .findFirst()
+                        .orElse(null);
+                if (model != null) return model + " (" + arch + ")";
+            } catch (IOException | RuntimeException ignored) {
+                // Fall through to the other sources
+            }
+        }
+
+        // Windows
+        String identifier = System.getenv("PROCESSOR_IDENTIFIER");
+        if (identifier != null) return identifier + " (" + arch + ")";
+
+        return arch;
+    }
+
+    // Only flags that change JIT or runtime behaviour, heap dump paths and the like don't matter
+    private static List<String> detectJvmFlags() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-XX:")
+                        || arg.equals("-Xint")
+                        || arg.equals("-Xcomp")
+                        || arg.equals("-Xbatch")
+                        || arg.startsWith("--add-modules")
+                        || arg.equals("--enable-preview"))
+                .sorted()
+                .toList();
+    }
+
+    private static String detectModVersion() {
+        try {
+            return FabricLoader.getInstance().getModContainer(MOD_ID)
+                    .map(mod -> mod.getMetadata().getVersion().getFriendlyString())
+                    .orElse("unknown");
+        } catch (RuntimeException e) {
+            return "unknown";
+        }
+    }
+}
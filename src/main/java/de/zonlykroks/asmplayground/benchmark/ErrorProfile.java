@@ -0,0 +1,29 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+/**
+ * Worst-case error of a kernel against the {@link StrictMath} result. StrictMath is fdlibm, within one ULP of
+ * the exact value (sqrt is correctly rounded), so ULP figures below about one say little about the kernel.
+ *
+ * @param maxAbsError largest absolute difference seen over the sampled domain
+ * @param maxUlpError largest difference seen, in units in the last place of the StrictMath result
+ */
+public record ErrorProfile(double maxAbsError, double maxUlpError) {
+    public static final ErrorProfile EXACT = new ErrorProfile(0.0, 0.0);
+
+    public ErrorProfile max(ErrorProfile other) {
+        return new ErrorProfile(Math.max(maxAbsError, other.maxAbsError), Math.max(maxUlpError, other.maxUlpError));
+    }
+
+    /**
+     * @param absBudget maximum allowed absolute error
+     * @param ulpBudget maximum allowed ULP error, {@code <= 0} disables the ULP check
+     */
+    public boolean within(double absBudget, double ulpBudget) {
+        return maxAbsError <= absBudget && (ulpBudget <= 0 || maxUlpError <= ulpBudget);
+    }
+
+    /** True if this profile is at least as accurate as {@code other} in both measures. */
+    public boolean noWorseThan(ErrorProfile other) {
+        return maxAbsError <= other.maxAbsError && maxUlpError <= other.maxUlpError;
+    }
+}
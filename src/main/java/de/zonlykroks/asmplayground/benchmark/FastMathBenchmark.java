@@ -11,17 +11,21 @@ import de.zonlykroks.asmplayground.math.FastMath;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.function.Supplier;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 
 /**
  * Benchmarks FastMath operations across all available redirect modes using plain Java timers.
  * Displays progress and results in a standalone AWT Swing window.
- * Selects and writes the average-best-performing modes to the config file,
- * but only updates those originally set to AUTO. Uses random inputs.
+ * Selects the fastest mode whose error stays within the configured budget for every function set to AUTO
+ * and caches the results per machine, see {@link BenchmarkCache}. Inputs are pre-generated so only the kernel is timed.
  */
 public class FastMathBenchmark {
     // Iteration counts
@@ -29,87 +33,157 @@ public class FastMathBenchmark {
     private static final int MEASURE_ITERATIONS = 1_000_000;
     private static final int REPEAT_MEASUREMENTS = 500;
 
+    // Pre-generated inputs, power of two so the index wraps with a mask
+    private static final int INPUT_COUNT = 1 << 12;
+    private static final double[] SQRT_INPUTS = inputs(0.0, 256.0);
+    private static final double[] SIN_INPUTS = inputs(-4 * Math.PI, 4 * Math.PI);
+    private static final double[] ASIN_INPUTS = inputs(-1.0, 1.0);
+
     // Volatile blackhole to prevent dead-code elimination
     private static volatile double blackhole;
 
+    /**
+     * Boot path: applies the cached AUTO results without measuring anything. Functions without cached
+     * results keep running on the JDK kernels.
+     *
+     * @return true if a function is still unresolved and needs {@link #testFastMathSystem()}
+     */
+    public static boolean applyCachedModes() {
+        return run(false);
+    }
+
+    /**
+     * Measures every AUTO function without cached results and swaps the winners in.
+     * Runs on the {@link BackgroundBenchmark} thread.
+     */
     public static void testFastMathSystem() {
         System.out.println("[Benchmark] Starting FastMath benchmark...");
-        SqrtRedirectMode originalSqrt = ModConfig.INSTANCE.sqrtRedirectMode;
-        SinRedirectMode originalSin = ModConfig.INSTANCE.sinRedirectMode;
-        ArcSinCosTanRedirectMode originalAsin = ModConfig.INSTANCE.arcSinCosTanRedirectMode;
+        run(true);
+    }
+
+    private static boolean run(boolean measure) {
+        ModConfig config = ModConfig.INSTANCE;
+        SqrtRedirectMode sqrt = config.sqrtRedirectMode;
+        SinRedirectMode sin = config.sinRedirectMode;
+        ArcSinCosTanRedirectMode asin = config.arcSinCosTanRedirectMode;
+        boolean unresolved = false;
 
-        Map<String, Double> avgTimes = new LinkedHashMap<>();
-        Map<String, Enum<?>> bestModes = new LinkedHashMap<>();
+        BenchmarkFingerprint fingerprint = BenchmarkFingerprint.current();
+        BenchmarkCache cache = config.rebenchmarkOnNextBoot
+                ? BenchmarkCache.empty(fingerprint)
+                : BenchmarkCache.load(fingerprint);
 
         // sqrt
-        if (originalSqrt == SqrtRedirectMode.AUTO) {
-            System.out.println("[Benchmark] Testing sqrt modes (excluding AUTO)...");
-            for (SqrtRedirectMode mode : SqrtRedirectMode.values()) {
-                if (mode == SqrtRedirectMode.AUTO) continue;
-                System.out.println("Measuring sqrt mode " + mode + "...");
-                ModConfig.INSTANCE.sqrtRedirectMode = mode;
-                double meanNs = repeatedMeasure(() -> FastMath.sqrt(Math.random()), "sqrt[" + mode + "]");
-                System.out.println(String.format("Result: sqrt[%s]: %.2f ns/call", mode, meanNs));
-                avgTimes.put("sqrt:" + mode, meanNs);
-                recordAverageBest("sqrt", mode, meanNs, bestModes, avgTimes);
+        if (sqrt == SqrtRedirectMode.AUTO) {
+            sqrt = resolve("sqrt", SqrtRedirectMode.class, FastMath::sqrtKernel, KernelAccuracy::sqrt, SQRT_INPUTS,
+                    config.sqrtErrorBudget, config.sqrtUlpBudget, cache, measure);
+            if (sqrt == null) {
+                sqrt = FastMath.sqrtMode();
+                unresolved = true;
             }
-        } else {
-            System.out.println("[Skip] sqrt mode locked to " + originalSqrt);
+        } else if (measure) {
+            System.out.println("[Skip] sqrt mode locked to " + sqrt);
         }
 
         // sin
-        if (originalSin == SinRedirectMode.AUTO) {
-            System.out.println("[Benchmark] Testing sin modes (excluding AUTO)...");
-            for (SinRedirectMode mode : SinRedirectMode.values()) {
-                if (mode == SinRedirectMode.AUTO) continue;
-                System.out.println("Measuring sin mode " + mode + "...");
-                ModConfig.INSTANCE.sinRedirectMode = mode;
-                double meanNs = repeatedMeasure(() -> FastMath.sin(Math.random()), "sin[" + mode + "]");
-                System.out.println(String.format("Result: sin[%s]: %.2f ns/call", mode, meanNs));
-                recordAverageBest("sin", mode, meanNs, bestModes, avgTimes);
+        if (sin == SinRedirectMode.AUTO) {
+            sin = resolve("sin", SinRedirectMode.class, FastMath::sinKernel, KernelAccuracy::sin, SIN_INPUTS,
+                    config.sinErrorBudget, config.sinUlpBudget, cache, measure);
+            if (sin == null) {
+                sin = FastMath.sinMode();
+                unresolved = true;
             }
-        } else {
-            System.out.println("[Skip] sin mode locked to " + originalSin);
+        } else if (measure) {
+            System.out.println("[Skip] sin mode locked to " + sin);
         }
 
         // asin
-        if (originalAsin == ArcSinCosTanRedirectMode.AUTO) {
-            System.out.println("[Benchmark] Testing asin modes (excluding AUTO)...");
-            for (ArcSinCosTanRedirectMode mode : ArcSinCosTanRedirectMode.values()) {
-                if (mode == ArcSinCosTanRedirectMode.AUTO) continue;
-                System.out.println("Measuring asin mode " + mode + "...");
-                ModConfig.INSTANCE.arcSinCosTanRedirectMode = mode;
-                double meanNs = repeatedMeasure(() -> FastMath.asin(Math.random()), "asin[" + mode + "]");
-                System.out.println(String.format("Result: asin[%s]: %.2f ns/call", mode, meanNs));
-                recordAverageBest("asin", mode, meanNs, bestModes, avgTimes);
+        if (asin == ArcSinCosTanRedirectMode.AUTO) {
+            asin = resolve("asin", ArcSinCosTanRedirectMode.class, FastMath::asinKernel, KernelAccuracy::arcSin, ASIN_INPUTS,
+                    config.arcSinErrorBudget, config.arcSinUlpBudget, cache, measure);
+            if (asin == null) {
+                asin = FastMath.arcSinCosTanMode();
+                unresolved = true;
             }
+        } else if (measure) {
+            System.out.println("[Skip] asin mode locked to " + asin);
+        }
+
+        // Swap the resolved modes in, the config keeps AUTO so later boots can reuse the cache. The config is read
+        // again here, a function set to an explicit mode while the benchmark ran keeps that mode
+        FastMath.useAutoModes(sqrt, sin, asin);
+        cache.saveIfChanged();
+
+        if (measure && config.rebenchmarkOnNextBoot) {
+            config.rebenchmarkOnNextBoot = false;
+            ModConfig.save();
+        }
+
+        System.out.println(unresolved
+                ? "[Benchmark] No cached results for this machine yet, running on the JDK kernels until the benchmark finished:"
+                : "[Benchmark] Complete. Applied modes:");
+        System.out.println("  sqrt -> " + FastMath.sqrtMode());
+        System.out.println("  sin -> " + FastMath.sinMode());
+        System.out.println("  asin -> " + FastMath.arcSinCosTanMode());
+        return unresolved;
+    }
+
+    /**
+     * Resolves one AUTO function: reuses the cached timings and errors when the fingerprint matched,
+     * otherwise measures every mode and caches the results. Selection always runs against the current budget.
+     *
+     * @return the selected mode, or null if nothing was cached and {@code measure} is false
+     */
+    private static <M extends Enum<M>> M resolve(String key, Class<M> type,
+                                                 Function<M, DoubleUnaryOperator> kernel,
+                                                 Function<M, ErrorProfile> accuracy,
+                                                 double[] inputs,
+                                                 double absBudget, double ulpBudget,
+                                                 BenchmarkCache cache, boolean measure) {
+        List<KernelCandidate<M>> candidates = cache.candidates(key, type);
+        if (candidates != null) {
+            System.out.println("[Benchmark] Reusing cached " + key + " results");
+        } else if (!measure) {
+            return null;
         } else {
-            System.out.println("[Skip] asin mode locked to " + originalAsin);
+            System.out.println("[Benchmark] Testing " + key + " modes (excluding AUTO)...");
+            candidates = new ArrayList<>();
+            for (M mode : type.getEnumConstants()) {
+                if (mode.name().equals("AUTO")) continue;
+                System.out.println("Measuring " + key + " mode " + mode + "...");
+                double meanNs = repeatedMeasure(kernel.apply(mode), inputs, key + "[" + mode + "]");
+                candidates.add(report(key, mode, meanNs, accuracy.apply(mode)));
+            }
+            cache.putCandidates(key, candidates);
         }
 
-        // Apply and save best modes
-        if (bestModes.containsKey("sqrt")) ModConfig.INSTANCE.sqrtRedirectMode = (SqrtRedirectMode) bestModes.get("sqrt");
-        if (bestModes.containsKey("sin"))  ModConfig.INSTANCE.sinRedirectMode = (SinRedirectMode) bestModes.get("sin");
-        if (bestModes.containsKey("asin")) ModConfig.INSTANCE.arcSinCosTanRedirectMode = (ArcSinCosTanRedirectMode) bestModes.get("asin");
-        ModConfig.save();
+        M best = selectWithinBudget(key, candidates, absBudget, ulpBudget);
+        cache.putChosenMode(key, best);
+        return best;
+    }
 
-        System.out.println("[Benchmark] Complete. Applied modes:");
-        bestModes.forEach((k, v) -> System.out.println("  " + k + " -> " + v));
-        System.out.println("[Benchmark] Config saved successfully.");
+    private static double[] inputs(double min, double max) {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        double[] values = new double[INPUT_COUNT];
+        for (int i = 0; i < INPUT_COUNT; i++) values[i] = random.nextDouble(min, max);
+        return values;
     }
 
-    private static long measure(Supplier<Double> op) {
-        for (int i = 0; i < WARMUP_ITERATIONS; i++) blackhole = op.get();
-        long start = System.nanoTime();
-        for (int i = 0; i < MEASURE_ITERATIONS; i++) blackhole = op.get();
-        return (System.nanoTime() - start) / MEASURE_ITERATIONS;
+    private static double measure(MethodHandle loop, DoubleUnaryOperator op, double[] inputs) {
+        try {
+            return (double) loop.invokeExact(op, inputs, WARMUP_ITERATIONS, MEASURE_ITERATIONS);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Measuring loop failed", e);
+        }
     }
 
-    private static double repeatedMeasure(Supplier<Double> op, String label) {
+    private static double repeatedMeasure(DoubleUnaryOperator op, double[] inputs, String label) {
+        // A loop of its own per mode, see MeasureLoop
+        MethodHandle loop = MeasureLoop.forCandidate();
         double sum = 0;
         int checkpoint = REPEAT_MEASUREMENTS / 10;
         for (int i = 1; i <= REPEAT_MEASUREMENTS; i++) {
-            sum += measure(op);
+            sum += measure(loop, op, inputs);
             if (i % checkpoint == 0) {
                 System.out.println(String.format("[Progress] %s: %d%% complete", label, (i * 100) / REPEAT_MEASUREMENTS));
             }
@@ -117,13 +191,39 @@ public class FastMathBenchmark {
         return sum / REPEAT_MEASUREMENTS;
     }
 
-    private static void recordAverageBest(String key, Enum<?> mode, double avgTime,
-                                          Map<String, Enum<?>> bestModes,
-                                          Map<String, Double> avgTimes) {
-        if (!bestModes.containsKey(key) || avgTime < avgTimes.get(key + ":" + bestModes.get(key))) {
-            bestModes.put(key, mode);
+    private static <M extends Enum<M>> KernelCandidate<M> report(String key, M mode, double meanNs, ErrorProfile error) {
+        System.out.println(String.format("Result: %s[%s]: %.2f ns/call, max abs error %.3e, max ulp error %.3e",
+                key, mode, meanNs, error.maxAbsError(), error.maxUlpError()));
+        return new KernelCandidate<>(mode, meanNs, error);
+    }
+
+    /**
+     * Picks the fastest candidate within the error budget. The winner always sits on the speed/error
+     * Pareto front, which is logged so the trade-off stays visible. If nothing fits the budget, the most
+     * accurate candidate wins regardless of speed.
+     */
+    private static <M extends Enum<M>> M selectWithinBudget(String key, List<KernelCandidate<M>> candidates,
+                                                          double absBudget, double ulpBudget) {
+        System.out.println("[Benchmark] " + key + " speed/error Pareto front:");
+        for (KernelCandidate<M> candidate : KernelCandidate.paretoFront(candidates)) {
+            System.out.println(String.format("  %s: %.2f ns/call, max abs error %.3e",
+                    candidate.mode(), candidate.nsPerCall(), candidate.error().maxAbsError()));
+        }
+
+        KernelCandidate<M> best = null;
+        for (KernelCandidate<M> candidate : candidates) {
+            if (!candidate.error().within(absBudget, ulpBudget)) continue;
+            if (best == null || candidate.nsPerCall() < best.nsPerCall()) best = candidate;
+        }
+
+        if (best == null) {
+            best = candidates.stream()
+                    .min(Comparator.comparingDouble((KernelCandidate<M> c) -> c.error().maxAbsError()))
+                    .orElseThrow();
+            System.out.println(String.format("[Benchmark] No %s mode stays within abs %.3e / ulp %.3e, falling back to the most accurate: %s",
+                    key, absBudget, ulpBudget, best.mode()));
         }
-        avgTimes.put(key + ":" + mode, avgTime);
+        return best.mode();
     }
 
     public static double getBlackhole() { return blackhole; }
@@ -0,0 +1,65 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import de.zonlykroks.asmplayground.impl.modes.ArcSinCosTanRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SqrtRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
+
+import java.util.SplittableRandom;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Characterises every FastMath kernel by its max absolute and max ULP error over the domain
+ * the game actually feeds it, so AUTO can reject kernels that are fast but visibly wrong.
+ */
+public class KernelAccuracy {
+    private static final int SAMPLES = 1 << 16;
+    private static final long SEED = 0x5EEDL;
+
+    private static final double TRIG_RANGE = 4 * Math.PI;
+    // Stay clear of the poles, there every kernel's absolute error explodes and tells us nothing
+    private static final double TAN_RANGE = 1.0;
+    private static final double ATAN_RANGE = 16.0;
+    private static final double SQRT_RANGE = 1024.0;
+
+    public static ErrorProfile sin(SinRedirectMode mode) {
+        return measure(FastMath.sinKernel(mode), StrictMath::sin, -TRIG_RANGE, TRIG_RANGE)
+                .max(measure(FastMath.cosKernel(mode), StrictMath::cos, -TRIG_RANGE, TRIG_RANGE))
+                .max(measure(FastMath.tanKernel(mode), StrictMath::tan, -TAN_RANGE, TAN_RANGE));
+    }
+
+    public static ErrorProfile arcSin(ArcSinCosTanRedirectMode mode) {
+        return measure(FastMath.asinKernel(mode), StrictMath::asin, -1.0, 1.0)
+                .max(measure(FastMath.acosKernel(mode), StrictMath::acos, -1.0, 1.0))
+                .max(measure(FastMath.atanKernel(mode), StrictMath::atan, -ATAN_RANGE, ATAN_RANGE));
+    }
+
+    public static ErrorProfile sqrt(SqrtRedirectMode mode) {
+        return measure(FastMath.sqrtKernel(mode), StrictMath::sqrt, 0.0, SQRT_RANGE);
+    }
+
+    /**
+     * Samples {@code kernel} on a jittered uniform grid over {@code [min, max]}, both endpoints included.
+     */
+    public static ErrorProfile measure(DoubleUnaryOperator kernel, DoubleUnaryOperator reference, double min, double max) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double step = (max - min) / SAMPLES;
+        double maxAbs = 0.0;
+        double maxUlp = 0.0;
+
+        for (int i = 0; i <= SAMPLES; i++) {
+            // Jitter interior points so the grid never lines up with a table's knots
+            double x = i == 0 ? min : i == SAMPLES ? max : min + (i + random.nextDouble() - 0.5) * step;
+            double exact = reference.applyAsDouble(x);
+            double approx = kernel.applyAsDouble(x);
+            if (Double.isNaN(exact) && Double.isNaN(approx)) continue;
+
+            double abs = Math.abs(approx - exact);
+            if (Double.isNaN(abs)) abs = Double.POSITIVE_INFINITY;
+            maxAbs = Math.max(maxAbs, abs);
+            maxUlp = Math.max(maxUlp, abs / Math.ulp(exact));
+        }
+
+        return new ErrorProfile(maxAbs, maxUlp);
+    }
+}
@@ -0,0 +1,34 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One measured kernel: its mode, the mean time per call and its error over the function's domain.
+ */
+public record KernelCandidate<M extends Enum<M>>(M mode, double nsPerCall, ErrorProfile error) {
+
+    public boolean dominates(KernelCandidate<M> other) {
+        return nsPerCall <= other.nsPerCall
+                && error.noWorseThan(other.error)
+                && (nsPerCall < other.nsPerCall || !other.error.noWorseThan(error));
+    }
+
+    /**
+     * The speed/error Pareto front: every candidate no other candidate beats in both time and error.
+     */
+    public static <M extends Enum<M>> List<KernelCandidate<M>> paretoFront(List<KernelCandidate<M>> candidates) {
+        List<KernelCandidate<M>> front = new ArrayList<>();
+        for (KernelCandidate<M> candidate : candidates) {
+            boolean dominated = false;
+            for (KernelCandidate<M> other : candidates) {
+                if (other != candidate && other.dominates(candidate)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) front.add(candidate);
+        }
+        return front;
+    }
+}
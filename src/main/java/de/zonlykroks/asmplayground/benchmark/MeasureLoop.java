@@ -0,0 +1,69 @@
+package de.zonlykroks.asmplayground.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The timed loop of {@link FastMathBenchmark}. Every candidate gets its own hidden copy of this class,
+ * so its applyAsDouble call sites only ever see that candidate's kernel. Timing all modes through one
+ * shared loop let the first mode run inlined while later ones paid for megamorphic dispatch and
+ * deopts, which ranked modes by enum order as much as by speed.
+ */
+final class MeasureLoop {
+    private static final MethodType RUN = MethodType.methodType(double.class, DoubleUnaryOperator.class, double[].class, int.class, int.class);
+
+    // Volatile blackhole to prevent dead-code elimination, every copy has its own
+    private static volatile double blackhole;
+
+    private static byte[] classFile;
+
+    private MeasureLoop() {
+    }
+
+    /**
+     * @return {@code run} of a fresh copy of this class, or of this class itself if no copy can be defined
+     */
+    static MethodHandle forCandidate() {
+        try {
+            MethodHandles.Lookup copy = MethodHandles.lookup().defineHiddenClass(classFile(), true);
+            return copy.findStatic(copy.lookupClass(), "run", RUN);
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            System.out.println("[Benchmark] Could not copy the measuring loop, timings may depend on mode order: " + e);
+            try {
+                return MethodHandles.lookup().findStatic(MeasureLoop.class, "run", RUN);
+            } catch (ReflectiveOperationException shared) {
+                throw new IllegalStateException("MeasureLoop.run is missing", shared);
+            }
+        }
+    }
+
+    private static synchronized byte[] classFile() throws IOException {
+        if (classFile == null) {
+            try (InputStream in = MeasureLoop.class.getResourceAsStream("MeasureLoop.class")) {
+                if (in == null) {
+                    throw new IOException("MeasureLoop.class not found");
+                }
+                classFile = in.readAllBytes();
+            }
+        }
+        return classFile;
+    }
+
+    /**
+     * @return mean nanoseconds per call over {@code iterations} calls, after {@code warmup} untimed ones
+     */
+    static double run(DoubleUnaryOperator op, double[] inputs, int warmup, int iterations) {
+        int mask = inputs.length - 1;
+        double sink = 0;
+        for (int i = 0; i < warmup; i++) sink += op.applyAsDouble(inputs[i & mask]);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.applyAsDouble(inputs[i & mask]);
+        long elapsed = System.nanoTime() - start;
+        blackhole = sink;
+        return (double) elapsed / iterations;
+    }
+}
@@ -0,0 +1,131 @@
+package de.zonlykroks.asmplayground.census;
+
+import de.zonlykroks.asmplayground.visitor.RedirectRule;
+import de.zonlykroks.asmplayground.visitor.RedirectRules;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Offline count of the call sites every {@link RedirectRules} rule would rewrite in a Minecraft jar,
+ * by package, class and method. Matches calls with the same {@link RedirectRule#matches} and
+ * {@link RedirectRules#leftAloneIn} checks as the RedirectTransformer, whether or not the rule is
+ * enabled in the current config.
+ * <p>
+ * Usage: {@code CallSiteCensus <remapped minecraft jar> [report.json]}, or {@code gradle callSiteCensus -PcensusJar=...}
+ * </p>
+ */
+public class CallSiteCensus {
+    // Classes per fork-join leaf, small enough to keep all workers busy until the end of the jar
+    private static final int CLASSES_PER_TASK = 64;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CallSiteCensus <remapped minecraft jar> [report.json]");
+            System.exit(2);
+        }
+
+        Path jar = Path.of(args[0]);
+        Path report = Path.of(args.length > 1 ? args[1] : "call-site-census.json");
+
+        long start = System.nanoTime();
+        CensusReport census = run(jar);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        census.write(report, jar, millis);
+        System.out.println(census.summary());
+        System.out.println("[Census] " + census.classesScanned() + " classes in " + millis + " ms, report written to " + report.toAbsolutePath());
+    }
+
+    public static CensusReport run(Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            // Same classes the transformer pipeline accepts
+            List<? extends ZipEntry> classes = zip.stream()
+                    .filter(entry -> entry.getName().endsWith(".class") && entry.getName().contains("net/minecraft"))
+                    .toList();
+
+            CensusReport census = new CensusReport(RedirectRules.all());
+            ForkJoinPool.commonPool().invoke(new ScanTask(zip, classes, 0, classes.size(), census));
+            return census;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveAction {
+        private final ZipFile zip;
+        private final List<? extends ZipEntry> classes;
+        private final int from;
+        private final int to;
+        private final CensusReport census;
+
+        private ScanTask(ZipFile zip, List<? extends ZipEntry> classes, int from, int to, CensusReport census) {
+            this.zip = zip;
+            this.classes = classes;
+            this.from = from;
+            this.to = to;
+            this.census = census;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CLASSES_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScanTask(zip, classes, from, mid, census), new ScanTask(zip, classes, mid, to, census));
+                return;
+            }
+
+            CensusReport local = new CensusReport(census.rules());
+            for (int i = from; i < to; i++) {
+                try (InputStream in = zip.getInputStream(classes.get(i))) {
+                    scan(in.readAllBytes(), local);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read " + classes.get(i).getName(), e);
+                }
+            }
+            census.merge(local);
+        }
+    }
+
+    private static void scan(byte[] classFile, CensusReport census) {
+        census.classScanned();
+        new ClassReader(classFile).accept(new ClassVisitor(Opcodes.ASM9) {
+            private String className;
+
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                this.className = name;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String methodName, String descriptor, String signature, String[] exceptions) {
+                return new MethodVisitor(Opcodes.ASM9) {
+                    @Override
+                    public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean isInterface) {
+                        RedirectRule[] rules = RedirectRules.forName(name);
+                        if (rules == null) {
+                            return;
+                        }
+                        for (RedirectRule rule : rules) {
+                            if (rule.matches(opcode, owner, desc)) {
+                                if (!RedirectRules.leftAloneIn(className, owner, rule)) {
+                                    census.site(rule, className, methodName + descriptor);
+                                }
+                                return;
+                            }
+                        }
+                    }
+                };
+            }
+        }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    }
+}
@@ -0,0 +1,123 @@
+package de.zonlykroks.asmplayground.census;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import de.zonlykroks.asmplayground.visitor.RedirectRule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Call sites per rule, broken down by package, class and method. Each fork-join leaf fills its own
+ * report and merges it into the shared one once.
+ */
+public class CensusReport {
+    private final List<RedirectRule> rules;
+    private final Map<RedirectRule, Tally> tallies = new LinkedHashMap<>();
+    private long classesScanned;
+
+    private static final class Tally {
+        long sites;
+        final Map<String, Long> packages = new HashMap<>();
+        final Map<String, Long> classes = new HashMap<>();
+        final Map<String, Long> methods = new HashMap<>();
+    }
+
+    CensusReport(List<RedirectRule> rules) {
+        this.rules = rules;
+        for (RedirectRule rule : rules) {
+            tallies.put(rule, new Tally());
+        }
+    }
+
+    List<RedirectRule> rules() {
+        return rules;
+    }
+
+    void classScanned() {
+        classesScanned++;
+    }
+
+    void site(RedirectRule rule, String className, String method) {
+        Tally tally = tallies.get(rule);
+        tally.sites++;
+        int slash = className.lastIndexOf('/');
+        tally.packages.merge(slash < 0 ? "" : className.substring(0, slash), 1L, Long::sum);
+        tally.classes.merge(className, 1L, Long::sum);
+        tally.methods.merge(className + "." + method, 1L, Long::sum);
+    }
+
+    synchronized void merge(CensusReport other) {
+        classesScanned += other.classesScanned;
+        other.tallies.forEach((rule, theirs) -> {
+            Tally ours = tallies.get(rule);
+            ours.sites += theirs.sites;
+            theirs.packages.forEach((key, count) -> ours.packages.merge(key, count, Long::sum));
+            theirs.classes.forEach((key, count) -> ours.classes.merge(key, count, Long::sum));
+            theirs.methods.forEach((key, count) -> ours.methods.merge(key, count, Long::sum));
+        });
+    }
+
+    public synchronized long classesScanned() {
+        return classesScanned;
+    }
+
+    public synchronized long sites(RedirectRule rule) {
+        return tallies.get(rule).sites;
+    }
+
+    public synchronized String summary() {
+        StringBuilder table = new StringBuilder(String.format("  %-72s %8s %8s %8s%n", "rule", "enabled", "sites", "classes"));
+        tallies.forEach((rule, tally) -> table.append(String.format("  %-72s %8s %8d %8d%n",
+                name(rule), rule.enabled().getAsBoolean(), tally.sites, tally.classes.size())));
+        return table.toString();
+    }
+
+    synchronized void write(Path report, Path jar, long millis) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("jar", jar.toAbsolutePath().toString());
+        root.addProperty("classesScanned", classesScanned);
+        root.addProperty("millis", millis);
+
+        JsonArray rulesJson = new JsonArray();
+        tallies.forEach((rule, tally) -> {
+            JsonObject json = new JsonObject();
+            json.addProperty("rule", name(rule));
+            json.addProperty("enabled", rule.enabled().getAsBoolean());
+            json.addProperty("sites", tally.sites);
+            json.add("packages", sorted(tally.packages));
+            json.add("classes", sorted(tally.classes));
+            json.add("methods", sorted(tally.methods));
+            rulesJson.add(json);
+        });
+        root.add("rules", rulesJson);
+
+        Path parent = report.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(report)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(root, writer);
+        }
+    }
+
+    private static String name(RedirectRule rule) {
+        return rule.owner() + "." + rule.name() + rule.descriptor();
+    }
+
+    // Most sites first, ties by name so reports of two versions diff cleanly
+    private static JsonObject sorted(Map<String, Long> counts) {
+        JsonObject json = new JsonObject();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> json.addProperty(entry.getKey(), entry.getValue()));
+        return json;
+    }
+}
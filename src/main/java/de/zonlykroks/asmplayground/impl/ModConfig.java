@@ -18,7 +18,7 @@ import java.nio.file.Path;
 public class ModConfig {
     private static final Logger LOGGER = LogManager.getLogger("asm-playground");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Path CONFIG_PATH = FabricLoader.getInstance().getConfigDir().resolve("asm_playground.json");
+    private static final Path CONFIG_PATH = configDir().resolve("asm_playground.json");
 
     public static ModConfig INSTANCE;
 
@@ -29,7 +29,23 @@ public class ModConfig {
     public boolean sinRedirectEnabled, arcSinRedirectEnabled = true;
     public boolean optimizeMathFloor = true;
     public boolean optimizeMathSqrt = true;
+    // The explosion's batch math only vectorizes when the game runs with --add-modules jdk.incubator.vector
     public boolean optimizeVecNormalize, optimizeExplosion, optimizeAABBIntersectsCoords = true;
+    // Integer floor kernels for (int) Math.floor(x) and Mth.floor, only a win on some CPUs, see FloorBenchmark.
+    // The cast idiom is only rewritten where the Math.floor redirect (optimizeMathFloor or the policy) applies
+    public boolean optimizeFloorToInt = false;
+
+    // Merge sin and cos of the same value into one sincos call, needs the sin redirect enabled.
+    // Only pays off in the RIVENS, TAYLOR and LUT sin modes, the others compute both kernels anyway and add overhead
+    public boolean fuseSinCos = true;
+
+    // March explosion rays on worker threads, only for explosions at least this large
+    public boolean parallelExplosions = false;
+    public double parallelExplosionMinRadius = 4.0;
+    // Let all explosions of a tick share resolved block resistances, cleared when a block changes
+    public boolean shareExplosionResistances = false;
+    // Skip or share the exposure raycasts of explosion entity damage where the result is known
+    public boolean optimizeExplosionExposure = true;
 
     public double sqrtMinLutValue = 0.0;
     public double sqrtMaxLutValue = 256.0;
@@ -37,10 +53,50 @@ public class ModConfig {
 
     public int sqrtLutSize = (int) ((sqrtMaxLutValue - sqrtMinLutValue) / sqrtLutStepSize) + 1;
 
+    // Error budgets AUTO must respect, measured against StrictMath. A ULP budget of 0 disables the ULP check
+    public double sinErrorBudget = 1.0E-4;
+    public double sinUlpBudget = 0.0;
+    public double arcSinErrorBudget = 1.0E-4;
+    public double arcSinUlpBudget = 0.0;
+    public double sqrtErrorBudget = 1.0E-2;
+    public double sqrtUlpBudget = 0.0;
+
+    // Bind redirected call sites to the active kernel via INVOKEDYNAMIC instead of FastMath's mode switch
+    public boolean useInvokeDynamic = false;
+
+    // Ignore the cached AUTO benchmark results once, reset after the benchmark ran
+    public boolean rebenchmarkOnNextBoot = false;
+
+    // Keep what the visitors made of each class on disk and reuse it while mods and config stay the same
+    public boolean cacheTransformedClasses = false;
+
+    // Count every redirected call site and log the hottest ones periodically, disables the transform cache.
+    // Fused sin/cos pairs and floor casts are counted under the sin, cos or Math.floor site they were built from
+    public boolean countCallSites = false;
+    public int callSiteDumpIntervalSeconds = 60;
+    public int callSiteDumpTopN = 20;
+
+    // Compare about one in errorSampleRate FastMath results with the exact value and log the error, fixed at startup
+    public boolean sampleApproximationError = false;
+    public int errorSampleRate = 1024;
+    public int errorSampleReportIntervalSeconds = 300;
+
+    // Measure every registered visitor per class, reported over JFR and once the server has loaded
+    public boolean profileTransformers = false;
+
     static {
         load();
     }
 
+    // Headless tooling (JMH benchmarks) runs without a Fabric game directory, fall back to ./config there
+    public static Path configDir() {
+        try {
+            return FabricLoader.getInstance().getConfigDir();
+        } catch (RuntimeException e) {
+            return Path.of("config");
+        }
+    }
+
     // Load config from file
     public static void load() {
         try {
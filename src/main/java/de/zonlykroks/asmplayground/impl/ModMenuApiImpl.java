@@ -2,9 +2,11 @@ package de.zonlykroks.asmplayground.impl;
 
 import com.terraformersmc.modmenu.api.ConfigScreenFactory;
 import com.terraformersmc.modmenu.api.ModMenuApi;
+import de.zonlykroks.asmplayground.benchmark.BackgroundBenchmark;
 import de.zonlykroks.asmplayground.impl.modes.ArcSinCosTanRedirectMode;
 import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
 import de.zonlykroks.asmplayground.impl.modes.SqrtRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
 import me.shedaniel.clothconfig2.api.ConfigBuilder;
 import me.shedaniel.clothconfig2.api.ConfigCategory;
 import me.shedaniel.clothconfig2.api.ConfigEntryBuilder;
@@ -25,7 +27,16 @@ public class ModMenuApiImpl implements ModMenuApi {
         ConfigBuilder builder = ConfigBuilder.create()
                 .setParentScreen(parent)
                 .setTitle(Component.literal("ASM Playground Config"))
-                .setSavingRunnable(ModConfig::save);
+                .setSavingRunnable(() -> {
+                    ModConfig.save();
+                    FastMath.syncWithConfig();
+                    // Resolve anything switched to AUTO, instant if the results are cached
+                    if (ModConfig.INSTANCE.sqrtRedirectMode == SqrtRedirectMode.AUTO
+                            || ModConfig.INSTANCE.sinRedirectMode == SinRedirectMode.AUTO
+                            || ModConfig.INSTANCE.arcSinCosTanRedirectMode == ArcSinCosTanRedirectMode.AUTO) {
+                        BackgroundBenchmark.start();
+                    }
+                });
 
         // Get entry builder
         ConfigEntryBuilder entryBuilder = builder.entryBuilder();
@@ -94,6 +105,26 @@ public class ModMenuApiImpl implements ModMenuApi {
                 .requireRestart()
                 .build());
 
+        sqrt.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Sqrt AUTO Error Budget"),
+                ModConfig.INSTANCE.sqrtErrorBudget
+        ).setDefaultValue(1.0E-2)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.sqrtErrorBudget = val)
+                .setTooltip(Component.literal("Max absolute error AUTO accepts for sqrt"))
+                .setMin(0.0)
+                .requireRestart()
+                .build());
+
+        sqrt.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Sqrt AUTO ULP Budget"),
+                ModConfig.INSTANCE.sqrtUlpBudget
+        ).setDefaultValue(0.0)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.sqrtUlpBudget = val)
+                .setTooltip(Component.literal("Max ULP error AUTO accepts for sqrt, 0 disables the check"))
+                .setMin(0.0)
+                .requireRestart()
+                .build());
+
         ConfigCategory trig = builder.getOrCreateCategory(Component.literal("Trig"));
 
         trig.addEntry(entryBuilder.startBooleanToggle(
@@ -104,6 +135,15 @@ public class ModMenuApiImpl implements ModMenuApi {
                 .requireRestart()
                 .build());
 
+        trig.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Fuse Sin Cos Pairs"),
+                        ModConfig.INSTANCE.fuseSinCos
+                ).setDefaultValue(true)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.fuseSinCos = val)
+                .setTooltip(Component.literal("Compute sin and cos of the same angle in one call. Only faster in the RIVENS, TAYLOR and LUT sin modes"))
+                .requireRestart()
+                .build());
+
         trig.addEntry(entryBuilder.startEnumSelector(
                         Component.literal("Sin Cos Tan Redirect Mode"),
                         SinRedirectMode.class,
@@ -132,8 +172,66 @@ public class ModMenuApiImpl implements ModMenuApi {
                 .build()
         );
 
+        trig.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Sin Cos Tan AUTO Error Budget"),
+                ModConfig.INSTANCE.sinErrorBudget
+        ).setDefaultValue(1.0E-4)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.sinErrorBudget = val)
+                .setTooltip(Component.literal("Max absolute error AUTO accepts for sin / cos / tan"))
+                .setMin(0.0)
+                .requireRestart()
+                .build());
+
+        trig.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Sin Cos Tan AUTO ULP Budget"),
+                ModConfig.INSTANCE.sinUlpBudget
+        ).setDefaultValue(0.0)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.sinUlpBudget = val)
+                .setTooltip(Component.literal("Max ULP error AUTO accepts for sin / cos / tan, 0 disables the check"))
+                .setMin(0.0)
+                .requireRestart()
+                .build());
+
+        trig.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Arc Sin Cos Tan AUTO Error Budget"),
+                ModConfig.INSTANCE.arcSinErrorBudget
+        ).setDefaultValue(1.0E-4)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.arcSinErrorBudget = val)
+                .setTooltip(Component.literal("Max absolute error AUTO accepts for arc sin / arc cos / arc tan"))
+                .setMin(0.0)
+                .requireRestart()
+                .build());
+
+        trig.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Arc Sin Cos Tan AUTO ULP Budget"),
+                ModConfig.INSTANCE.arcSinUlpBudget
+        ).setDefaultValue(0.0)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.arcSinUlpBudget = val)
+                .setTooltip(Component.literal("Max ULP error AUTO accepts for arc sin / arc cos / arc tan, 0 disables the check"))
+                .setMin(0.0)
+                .requireRestart()
+                .build());
+
         ConfigCategory misc = builder.getOrCreateCategory(Component.literal("Misc"));
 
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Re-run AUTO Benchmark On Next Boot"),
+                        ModConfig.INSTANCE.rebenchmarkOnNextBoot
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.rebenchmarkOnNextBoot = val)
+                .setTooltip(Component.literal("Ignore the cached benchmark results once"))
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Bind Redirects Via InvokeDynamic"),
+                        ModConfig.INSTANCE.useInvokeDynamic
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.useInvokeDynamic = val)
+                .setTooltip(Component.literal("Call the active kernel directly, re-linked when the mode changes"))
+                .requireRestart()
+                .build());
+
         misc.addEntry(entryBuilder.startBooleanToggle(
                         Component.literal("Math Floor Redirect"),
                         ModConfig.INSTANCE.optimizeMathFloor
@@ -142,6 +240,15 @@ public class ModMenuApiImpl implements ModMenuApi {
                 .requireRestart()
                 .build());
 
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Integer Floor Kernels"),
+                        ModConfig.INSTANCE.optimizeFloorToInt
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.optimizeFloorToInt = val)
+                .setTooltip(Component.literal("Rewrite (int) Math.floor(x) and Mth.floor calls, check FloorBenchmark on your CPU first"))
+                .requireRestart()
+                .build());
+
         misc.addEntry(entryBuilder.startBooleanToggle(
                         Component.literal("Vec3 Normalize Redirect"),
                         ModConfig.INSTANCE.optimizeVecNormalize
@@ -155,6 +262,7 @@ public class ModMenuApiImpl implements ModMenuApi {
                         ModConfig.INSTANCE.optimizeExplosion
                 ).setDefaultValue(true)
                 .setSaveConsumer(val -> ModConfig.INSTANCE.optimizeExplosion = val)
+                .setTooltip(Component.literal("Batch math uses the Vector API only with the JVM argument --add-modules jdk.incubator.vector"))
                 .requireRestart()
                 .build());
 
@@ -166,6 +274,115 @@ public class ModMenuApiImpl implements ModMenuApi {
                 .requireRestart()
                 .build());
 
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Cache Transformed Classes"),
+                        ModConfig.INSTANCE.cacheTransformedClasses
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.cacheTransformedClasses = val)
+                .setTooltip(Component.literal("Reuse transformed classes from earlier boots, dropped when mods or config change"))
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Profile Transformers"),
+                        ModConfig.INSTANCE.profileTransformers
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.profileTransformers = val)
+                .setTooltip(Component.literal("Time every transformer per class, summarized in the log after the world loaded"))
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Count Redirected Call Sites"),
+                        ModConfig.INSTANCE.countCallSites
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.countCallSites = val)
+                .setTooltip(Component.literal("Count calls per redirected site and log the hottest ones, for profiling sessions"))
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startIntField(
+                        Component.literal("Call Site Report Interval (s)"),
+                        ModConfig.INSTANCE.callSiteDumpIntervalSeconds
+                ).setDefaultValue(60)
+                .setMin(1)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.callSiteDumpIntervalSeconds = val)
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startIntField(
+                        Component.literal("Call Site Report Size"),
+                        ModConfig.INSTANCE.callSiteDumpTopN
+                ).setDefaultValue(20)
+                .setMin(1)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.callSiteDumpTopN = val)
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Sample Approximation Error"),
+                        ModConfig.INSTANCE.sampleApproximationError
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.sampleApproximationError = val)
+                .setTooltip(Component.literal("Compare a sample of FastMath results with the exact value and log the error histograms"))
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startIntField(
+                        Component.literal("Error Sample Rate (1 in N calls)"),
+                        ModConfig.INSTANCE.errorSampleRate
+                ).setDefaultValue(1024)
+                .setMin(1)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.errorSampleRate = val)
+                .setTooltip(Component.literal("Rounded up to a power of two"))
+                .requireRestart()
+                .build());
+
+        misc.addEntry(entryBuilder.startIntField(
+                        Component.literal("Error Report Interval (s)"),
+                        ModConfig.INSTANCE.errorSampleReportIntervalSeconds
+                ).setDefaultValue(300)
+                .setMin(1)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.errorSampleReportIntervalSeconds = val)
+                .requireRestart()
+                .build());
+
+        ConfigCategory explosion = builder.getOrCreateCategory(Component.literal("Explosion"));
+
+        explosion.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Parallel Explosion Rays"),
+                        ModConfig.INSTANCE.parallelExplosions
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.parallelExplosions = val)
+                .setTooltip(Component.literal("March explosion rays on worker threads, needs Optimize TnT Calculation"))
+                .build());
+
+        explosion.addEntry(entryBuilder.startDoubleField(
+                Component.literal("Parallel Explosion Min Radius"),
+                ModConfig.INSTANCE.parallelExplosionMinRadius
+        ).setDefaultValue(4.0)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.parallelExplosionMinRadius = val)
+                .setTooltip(Component.literal("Smaller explosions stay on the server thread, TNT has radius 4"))
+                .setMin(0.0)
+                .build());
+
+        explosion.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Share Resistances Within A Tick"),
+                        ModConfig.INSTANCE.shareExplosionResistances
+                ).setDefaultValue(false)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.shareExplosionResistances = val)
+                .setTooltip(Component.literal("Explosions in the same tick resolve each block once, helps TNT cannons"))
+                .build());
+
+        explosion.addEntry(entryBuilder.startBooleanToggle(
+                        Component.literal("Optimize Explosion Exposure"),
+                        ModConfig.INSTANCE.optimizeExplosionExposure
+                ).setDefaultValue(true)
+                .setSaveConsumer(val -> ModConfig.INSTANCE.optimizeExplosionExposure = val)
+                .setTooltip(Component.literal("Skip raycasts for entities in open air, share them between stacked items"))
+                .requireRestart()
+                .build());
+
         return builder.build();
     }
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 package de.zonlykroks.asmplayground.impl.modes;
 
 public enum ArcSinCosTanRedirectMode {
-    POLY, LUT, APACHE, AUTO
+    POLY, LUT, APACHE, JDK, AUTO
 }
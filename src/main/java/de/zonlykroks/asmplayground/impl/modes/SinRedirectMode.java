@@ -1,5 +1,5 @@
 package de.zonlykroks.asmplayground.impl.modes;
 
 public enum SinRedirectMode {
-    PIECEWISE, RIVENS, TAYLOR, POLY, LUT, APACHE, AUTO
+    PIECEWISE, RIVENS, TAYLOR, POLY, LUT, APACHE, JDK, AUTO
 }
@@ -1,5 +1,5 @@
 package de.zonlykroks.asmplayground.impl.modes;
 
 public enum SqrtRedirectMode {
-    LUT,INV_SQRT,AUTO
+    LUT,LOG_LUT,INV_SQRT,JDK,AUTO
 }
@@ -1,23 +1,111 @@
 package de.zonlykroks.asmplayground.math;
 
 import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.math.batch.BatchKernels;
 import de.zonlykroks.asmplayground.math.sqrt.FastSqrt;
 import de.zonlykroks.asmplayground.math.trig.fast.FastAsinImplementation;
 import de.zonlykroks.asmplayground.math.trig.fast.FastTrigImplementation;
 import de.zonlykroks.asmplayground.math.trig.PiecewiseSinCosTanImplementation;
 import de.zonlykroks.asmplayground.math.trig.RivensFullMathSinCosTanImplementation;
 import de.zonlykroks.asmplayground.math.trig.TaylorSinCosTanImplementation;
+import de.zonlykroks.asmplayground.profiling.ErrorSampler;
+import de.zonlykroks.asmplayground.profiling.SampledFunction;
+import de.zonlykroks.asmplayground.impl.modes.ArcSinCosTanRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SqrtRedirectMode;
 import org.apache.commons.math4.core.jdkmath.AccurateMath;
 
+import java.util.function.DoubleUnaryOperator;
+
 @SuppressWarnings("unused")
 public class FastMath {
 
+    // Every scalar entry point hands its result to the ErrorSampler when sampling is on, see ModConfig#sampleApproximationError
+
+    // Modes actually in use, swapped as one snapshot so readers never see a half-applied benchmark result.
+    // A function configured as AUTO runs on the JDK kernel until the benchmark resolved it
+    private static volatile ActiveModes active = new ActiveModes(
+            orJdk(ModConfig.INSTANCE.sqrtRedirectMode),
+            orJdk(ModConfig.INSTANCE.sinRedirectMode),
+            orJdk(ModConfig.INSTANCE.arcSinCosTanRedirectMode)
+    );
+
+    private record ActiveModes(SqrtRedirectMode sqrt, SinRedirectMode sin, ArcSinCosTanRedirectMode arcSinCosTan) {
+    }
+
+    private static SqrtRedirectMode orJdk(SqrtRedirectMode mode) {
+        return mode == SqrtRedirectMode.AUTO ? SqrtRedirectMode.JDK : mode;
+    }
+
+    private static SinRedirectMode orJdk(SinRedirectMode mode) {
+        return mode == SinRedirectMode.AUTO ? SinRedirectMode.JDK : mode;
+    }
+
+    private static ArcSinCosTanRedirectMode orJdk(ArcSinCosTanRedirectMode mode) {
+        return mode == ArcSinCosTanRedirectMode.AUTO ? ArcSinCosTanRedirectMode.JDK : mode;
+    }
+
+    /**
+     * Atomically switches the kernels FastMath dispatches to. None of the modes may be AUTO.
+     */
+    public static synchronized void useModes(SqrtRedirectMode sqrt, SinRedirectMode sin, ArcSinCosTanRedirectMode arcSinCosTan) {
+        if (sqrt == SqrtRedirectMode.AUTO || sin == SinRedirectMode.AUTO || arcSinCosTan == ArcSinCosTanRedirectMode.AUTO) {
+            throw new IllegalArgumentException("AUTO must be resolved before it is applied");
+        }
+        active = new ActiveModes(sqrt, sin, arcSinCosTan);
+        FastMathLinker.relink();
+    }
+
+    /**
+     * Applies benchmark results, but only to functions the config still has on AUTO. A function switched to an
+     * explicit mode while the benchmark ran keeps the mode {@link #syncWithConfig()} gave it.
+     */
+    public static synchronized void useAutoModes(SqrtRedirectMode sqrt, SinRedirectMode sin, ArcSinCosTanRedirectMode arcSinCosTan) {
+        ModConfig config = ModConfig.INSTANCE;
+        ActiveModes current = active;
+        useModes(
+                config.sqrtRedirectMode == SqrtRedirectMode.AUTO ? sqrt : current.sqrt(),
+                config.sinRedirectMode == SinRedirectMode.AUTO ? sin : current.sin(),
+                config.arcSinCosTanRedirectMode == ArcSinCosTanRedirectMode.AUTO ? arcSinCosTan : current.arcSinCosTan()
+        );
+    }
+
+    /**
+     * Picks up mode changes from the config screen. Functions switched to AUTO keep their current kernel
+     * until the background benchmark resolved them.
+     */
+    public static synchronized void syncWithConfig() {
+        ModConfig config = ModConfig.INSTANCE;
+        ActiveModes current = active;
+        active = new ActiveModes(
+                config.sqrtRedirectMode == SqrtRedirectMode.AUTO ? current.sqrt() : config.sqrtRedirectMode,
+                config.sinRedirectMode == SinRedirectMode.AUTO ? current.sin() : config.sinRedirectMode,
+                config.arcSinCosTanRedirectMode == ArcSinCosTanRedirectMode.AUTO ? current.arcSinCosTan() : config.arcSinCosTanRedirectMode
+        );
+        FastMathLinker.relink();
+    }
+
+    public static SqrtRedirectMode sqrtMode() {
+        return active.sqrt();
+    }
+
+    public static SinRedirectMode sinMode() {
+        return active.sin();
+    }
+
+    public static ArcSinCosTanRedirectMode arcSinCosTanMode() {
+        return active.arcSinCosTan();
+    }
+
     public static double sqrt(double x) {
-        return switch (ModConfig.INSTANCE.sqrtRedirectMode) {
+        double result = switch (active.sqrt()) {
             case LUT -> FastSqrt.sqrt(x);
+            case LOG_LUT -> FastSqrt.logSqrt(x);
             case INV_SQRT -> FastSqrt.inversedInvSqrt(x);
+            case JDK -> Math.sqrt(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.SQRT, x, result) : result;
     }
 
     public static double floor(double x) {
@@ -27,66 +115,356 @@ public class FastMath {
         return (x < 0 && x != fx) ? fx - 1.0 : fx;
     }
 
+    // Integer floors for (int) Math.floor(x) and Mth.floor / lfloor, see FloorCastTransformer. Same result as
+    // floor-then-cast for every input, NaN included. Below the int range they saturate where Mth.floor wraps around
+
+    public static int floorInt(double x) {
+        int i = (int) x;
+        return (int) Math.max(x < i ? i - 1L : i, Integer.MIN_VALUE);
+    }
+
+    public static int floorInt(float x) {
+        int i = (int) x;
+        return (int) Math.max(x < i ? i - 1L : i, Integer.MIN_VALUE);
+    }
+
+    public static long floorLong(double x) {
+        long l = (long) x;
+        return x < l && l != Long.MIN_VALUE ? l - 1L : l;
+    }
+
     public static double sin(double x) {
-        return switch (ModConfig.INSTANCE.sinRedirectMode) {
+        double result = switch (active.sin()) {
             case PIECEWISE -> PiecewiseSinCosTanImplementation.fastPiecewisesin(x);
             case RIVENS -> RivensFullMathSinCosTanImplementation.sin(x);
             case TAYLOR -> TaylorSinCosTanImplementation.taylorsin(x);
             case POLY -> FastTrigImplementation.fastSinPolynomial(x);
             case LUT -> FastTrigImplementation.fastSinLUT(x);
             case APACHE -> AccurateMath.sin(x);
+            case JDK -> Math.sin(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.SIN, x, result) : result;
     }
 
     public static double cos(double x) {
-        return switch (ModConfig.INSTANCE.sinRedirectMode) {
+        double result = switch (active.sin()) {
             case PIECEWISE -> PiecewiseSinCosTanImplementation.fastPiecewisecos(x);
             case RIVENS -> RivensFullMathSinCosTanImplementation.cos(x);
             case TAYLOR -> TaylorSinCosTanImplementation.taylorcos(x);
             case POLY -> FastTrigImplementation.fastCosPolynomial(x);
             case LUT -> FastTrigImplementation.fastCosLUT(x);
             case APACHE -> AccurateMath.cos(x);
+            case JDK -> Math.cos(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.COS, x, result) : result;
     }
 
     public static double tan(double x) {
-        return switch (ModConfig.INSTANCE.sinRedirectMode) {
+        double result = switch (active.sin()) {
             case PIECEWISE -> PiecewiseSinCosTanImplementation.fastPiecewiseTan(x);
             case RIVENS -> RivensFullMathSinCosTanImplementation.tan(x);
             case TAYLOR -> TaylorSinCosTanImplementation.taylortan(x);
             case POLY -> FastTrigImplementation.fastTanPolynomial(x);
             case LUT -> FastTrigImplementation.fastTanLUT(x);
             case APACHE -> AccurateMath.tan(x);
+            case JDK -> Math.tan(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.TAN, x, result) : result;
     }
 
     public static double asin(double x) {
-        return switch (ModConfig.INSTANCE.arcSinCosTanRedirectMode) {
+        double result = switch (active.arcSinCosTan()) {
             case POLY -> FastAsinImplementation.fastAsinPolynomial(x);
             case LUT -> FastAsinImplementation.fastAsinLUT(x);
             case APACHE -> AccurateMath.asin(x);
+            case JDK -> Math.asin(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.ASIN, x, result) : result;
     }
 
     public static double acos(double x) {
-        return switch (ModConfig.INSTANCE.arcSinCosTanRedirectMode) {
+        double result = switch (active.arcSinCosTan()) {
             case POLY -> FastTrigImplementation.fastAcosPolynomial(x);
             case LUT -> FastTrigImplementation.fastAcosLUT(x);
             case APACHE -> AccurateMath.acos(x);
+            case JDK -> Math.acos(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.ACOS, x, result) : result;
     }
 
     public static double atan(double x) {
-        return switch (ModConfig.INSTANCE.arcSinCosTanRedirectMode) {
+        double result = switch (active.arcSinCosTan()) {
             case POLY -> FastTrigImplementation.fastAtanPolynomial(x);
             case LUT -> FastTrigImplementation.fastAtanLUT(x);
             case APACHE -> AccurateMath.atan(x);
+            case JDK -> Math.atan(x);
             case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
         };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.ATAN, x, result) : result;
+    }
+
+    // Float entry points for Mth's float call sites, so those skip the F2D/D2F round trip and double-precision work
+
+    public static float sqrt(float x) {
+        float result = switch (active.sqrt()) {
+            case LUT -> FastSqrt.sqrt(x);
+            case LOG_LUT -> FastSqrt.logSqrt(x);
+            case INV_SQRT -> FastSqrt.inversedInvSqrt(x);
+            case JDK -> (float) Math.sqrt(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.SQRT, x, result) : result;
+    }
+
+    public static float invSqrt(float x) {
+        float result = switch (active.sqrt()) {
+            case LUT -> 1.0f / FastSqrt.sqrt(x);
+            case LOG_LUT -> 1.0f / FastSqrt.logSqrt(x);
+            case INV_SQRT -> FastSqrt.fastInvSqrt(x);
+            case JDK -> 1.0f / (float) Math.sqrt(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.INV_SQRT, x, result) : result;
+    }
+
+    public static float sin(float x) {
+        float result = switch (active.sin()) {
+            case PIECEWISE -> PiecewiseSinCosTanImplementation.fastPiecewisesin(x);
+            case RIVENS -> RivensFullMathSinCosTanImplementation.sin(x);
+            case TAYLOR -> TaylorSinCosTanImplementation.taylorsin(x);
+            case POLY -> FastTrigImplementation.fastSinPolynomial(x);
+            case LUT -> FastTrigImplementation.fastSinLUT(x);
+            case APACHE -> (float) AccurateMath.sin(x);
+            case JDK -> (float) Math.sin(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.SIN, x, result) : result;
+    }
+
+    public static float cos(float x) {
+        float result = switch (active.sin()) {
+            case PIECEWISE -> PiecewiseSinCosTanImplementation.fastPiecewisecos(x);
+            case RIVENS -> RivensFullMathSinCosTanImplementation.cos(x);
+            case TAYLOR -> TaylorSinCosTanImplementation.taylorcos(x);
+            case POLY -> FastTrigImplementation.fastCosPolynomial(x);
+            case LUT -> FastTrigImplementation.fastCosLUT(x);
+            case APACHE -> (float) AccurateMath.cos(x);
+            case JDK -> (float) Math.cos(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.COS, x, result) : result;
+    }
+
+    public static float tan(float x) {
+        float result = switch (active.sin()) {
+            case PIECEWISE -> PiecewiseSinCosTanImplementation.fastPiecewiseTan(x);
+            case RIVENS -> RivensFullMathSinCosTanImplementation.tan(x);
+            case TAYLOR -> TaylorSinCosTanImplementation.taylortan(x);
+            case POLY -> FastTrigImplementation.fastTanPolynomial(x);
+            case LUT -> FastTrigImplementation.fastTanLUT(x);
+            case APACHE -> (float) AccurateMath.tan(x);
+            case JDK -> (float) Math.tan(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.TAN, x, result) : result;
+    }
+
+    public static float asin(float x) {
+        float result = switch (active.arcSinCosTan()) {
+            case POLY -> FastAsinImplementation.fastAsinPolynomial(x);
+            case LUT -> FastAsinImplementation.fastAsinLUT(x);
+            case APACHE -> (float) AccurateMath.asin(x);
+            case JDK -> (float) Math.asin(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.ASIN, x, result) : result;
+    }
+
+    public static float acos(float x) {
+        float result = switch (active.arcSinCosTan()) {
+            case POLY -> FastTrigImplementation.fastAcosPolynomial(x);
+            case LUT -> FastTrigImplementation.fastAcosLUT(x);
+            case APACHE -> (float) AccurateMath.acos(x);
+            case JDK -> (float) Math.acos(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.ACOS, x, result) : result;
+    }
+
+    public static float atan(float x) {
+        float result = switch (active.arcSinCosTan()) {
+            case POLY -> FastTrigImplementation.fastAtanPolynomial(x);
+            case LUT -> FastTrigImplementation.fastAtanLUT(x);
+            case APACHE -> (float) AccurateMath.atan(x);
+            case JDK -> (float) Math.atan(x);
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        return ErrorSampler.ENABLED ? ErrorSampler.check(SampledFunction.ATAN, x, result) : result;
+    }
+
+    // Fused sin/cos for call sites that compute both of the same angle, see SinCosFusionTransformer.
+    // Modes with a shared argument reduction use it, the rest fall back to two calls of the same kernel
+    // and are slower fused than unfused, the double variant pays for the scratch lookup on top
+
+    /**
+     * @return this thread's {@link SinCos#scratch()} slots holding sin(x) and cos(x)
+     */
+    public static double[] sincos(double x) {
+        double[] out = SinCos.scratch();
+        switch (active.sin()) {
+            case PIECEWISE -> {
+                out[0] = PiecewiseSinCosTanImplementation.fastPiecewisesin(x);
+                out[1] = PiecewiseSinCosTanImplementation.fastPiecewisecos(x);
+            }
+            case RIVENS -> RivensFullMathSinCosTanImplementation.sincos(x, out);
+            case TAYLOR -> TaylorSinCosTanImplementation.taylorsincos(x, out);
+            case POLY -> {
+                out[0] = FastTrigImplementation.fastSinPolynomial(x);
+                out[1] = FastTrigImplementation.fastCosPolynomial(x);
+            }
+            case LUT -> FastTrigImplementation.fastSinCosLUT(x, out);
+            case APACHE -> {
+                out[0] = AccurateMath.sin(x);
+                out[1] = AccurateMath.cos(x);
+            }
+            case JDK -> {
+                out[0] = Math.sin(x);
+                out[1] = Math.cos(x);
+            }
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        }
+        if (ErrorSampler.ENABLED) {
+            ErrorSampler.check(SampledFunction.SIN, x, out[0]);
+            ErrorSampler.check(SampledFunction.COS, x, out[1]);
+        }
+        return out;
+    }
+
+    /**
+     * @return sin(x) and cos(x) packed via {@link SinCos#pack}
+     */
+    public static long sincos(float x) {
+        long result = switch (active.sin()) {
+            case PIECEWISE -> SinCos.pack(PiecewiseSinCosTanImplementation.fastPiecewisesin(x), PiecewiseSinCosTanImplementation.fastPiecewisecos(x));
+            case RIVENS -> RivensFullMathSinCosTanImplementation.sincos(x);
+            case TAYLOR -> TaylorSinCosTanImplementation.taylorsincos(x);
+            case POLY -> SinCos.pack(FastTrigImplementation.fastSinPolynomial(x), FastTrigImplementation.fastCosPolynomial(x));
+            case LUT -> FastTrigImplementation.fastSinCosLUT(x);
+            case APACHE -> SinCos.pack((float) AccurateMath.sin(x), (float) AccurateMath.cos(x));
+            case JDK -> SinCos.pack((float) Math.sin(x), (float) Math.cos(x));
+            case AUTO -> throw new RuntimeException("How tf did you get here! Benchmark didnt benchmark, i see. Please set the config manually from AUTO mode to any supported mode!");
+        };
+        if (ErrorSampler.ENABLED) {
+            ErrorSampler.check(SampledFunction.SIN, x, SinCos.sin(result));
+            ErrorSampler.check(SampledFunction.COS, x, SinCos.cos(result));
+        }
+        return result;
+    }
+
+    // Batch entry points over [from, to) for array-shaped work, vectorized when jdk.incubator.vector is available
+
+    public static void sin(double[] in, double[] out, int from, int to) {
+        BatchKernels.get().sin(in, out, from, to);
+    }
+
+    public static void cos(double[] in, double[] out, int from, int to) {
+        BatchKernels.get().cos(in, out, from, to);
+    }
+
+    public static void sqrt(double[] in, double[] out, int from, int to) {
+        BatchKernels.get().sqrt(in, out, from, to);
+    }
+
+    /**
+     * Normalizes the vectors (x[i], y[i], z[i]) in place, see {@link BatchKernels#normalize}.
+     */
+    public static void normalize(double[] x, double[] y, double[] z, int from, int to) {
+        BatchKernels.get().normalize(x, y, z, from, to);
+    }
+
+    // Kernel lookups, used by the benchmarks to call a single mode without going through the config switch
+
+    public static DoubleUnaryOperator sqrtKernel(SqrtRedirectMode mode) {
+        return switch (mode) {
+            case LUT -> FastSqrt::sqrt;
+            case LOG_LUT -> FastSqrt::logSqrt;
+            case INV_SQRT -> FastSqrt::inversedInvSqrt;
+            case JDK -> Math::sqrt;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static DoubleUnaryOperator sinKernel(SinRedirectMode mode) {
+        return switch (mode) {
+            case PIECEWISE -> PiecewiseSinCosTanImplementation::fastPiecewisesin;
+            case RIVENS -> RivensFullMathSinCosTanImplementation::sin;
+            case TAYLOR -> TaylorSinCosTanImplementation::taylorsin;
+            case POLY -> FastTrigImplementation::fastSinPolynomial;
+            case LUT -> FastTrigImplementation::fastSinLUT;
+            case APACHE -> AccurateMath::sin;
+            case JDK -> Math::sin;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static DoubleUnaryOperator cosKernel(SinRedirectMode mode) {
+        return switch (mode) {
+            case PIECEWISE -> PiecewiseSinCosTanImplementation::fastPiecewisecos;
+            case RIVENS -> RivensFullMathSinCosTanImplementation::cos;
+            case TAYLOR -> TaylorSinCosTanImplementation::taylorcos;
+            case POLY -> FastTrigImplementation::fastCosPolynomial;
+            case LUT -> FastTrigImplementation::fastCosLUT;
+            case APACHE -> AccurateMath::cos;
+            case JDK -> Math::cos;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static DoubleUnaryOperator tanKernel(SinRedirectMode mode) {
+        return switch (mode) {
+            case PIECEWISE -> PiecewiseSinCosTanImplementation::fastPiecewiseTan;
+            case RIVENS -> RivensFullMathSinCosTanImplementation::tan;
+            case TAYLOR -> TaylorSinCosTanImplementation::taylortan;
+            case POLY -> FastTrigImplementation::fastTanPolynomial;
+            case LUT -> FastTrigImplementation::fastTanLUT;
+            case APACHE -> AccurateMath::tan;
+            case JDK -> Math::tan;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static DoubleUnaryOperator asinKernel(ArcSinCosTanRedirectMode mode) {
+        return switch (mode) {
+            case POLY -> FastAsinImplementation::fastAsinPolynomial;
+            case LUT -> FastAsinImplementation::fastAsinLUT;
+            case APACHE -> AccurateMath::asin;
+            case JDK -> Math::asin;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static DoubleUnaryOperator acosKernel(ArcSinCosTanRedirectMode mode) {
+        return switch (mode) {
+            case POLY -> FastTrigImplementation::fastAcosPolynomial;
+            case LUT -> FastTrigImplementation::fastAcosLUT;
+            case APACHE -> AccurateMath::acos;
+            case JDK -> Math::acos;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static DoubleUnaryOperator atanKernel(ArcSinCosTanRedirectMode mode) {
+        return switch (mode) {
+            case POLY -> FastTrigImplementation::fastAtanPolynomial;
+            case LUT -> FastTrigImplementation::fastAtanLUT;
+            case APACHE -> AccurateMath::atan;
+            case JDK -> Math::atan;
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
     }
 }
@@ -0,0 +1,58 @@
+package de.zonlykroks.asmplayground.math;
+
+import de.zonlykroks.asmplayground.profiling.ErrorSampler;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bootstrap for the INVOKEDYNAMIC call sites the transformers emit when {@code useInvokeDynamic} is on.
+ * <p>
+ * Every call site for the same function and descriptor is bound to one shared {@link MutableCallSite}
+ * whose target is the selected kernel itself, so a steady-state call is a direct, inlinable static call
+ * with no config load or mode switch in front of it. A mode change re-targets the shared sites, which
+ * invalidates the compiled code that inlined the old kernel.
+ * </p>
+ */
+public class FastMathLinker {
+    public static final String OWNER = "de/zonlykroks/asmplayground/math/FastMathLinker";
+    public static final String BOOTSTRAP_NAME = "bootstrap";
+    public static final String BOOTSTRAP_DESC = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;";
+
+    // Keyed by function name + method descriptor
+    private static final Map<String, MutableCallSite> SITES = new LinkedHashMap<>();
+
+    @SuppressWarnings("unused")
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type) {
+        synchronized (SITES) {
+            return SITES.computeIfAbsent(name + type.toMethodDescriptorString(),
+                    key -> new MutableCallSite(target(name).handle(type)));
+        }
+    }
+
+    /**
+     * Points every linked call site at the kernels FastMath currently has active.
+     */
+    public static void relink() {
+        synchronized (SITES) {
+            if (SITES.isEmpty()) return;
+
+            for (Map.Entry<String, MutableCallSite> entry : SITES.entrySet()) {
+                String key = entry.getKey();
+                String function = key.substring(0, key.indexOf('('));
+                MutableCallSite site = entry.getValue();
+                site.setTarget(target(function).handle(site.type()));
+            }
+            MutableCallSite.syncAll(SITES.values().toArray(new MutableCallSite[0]));
+        }
+    }
+
+    // Sampled calls have to pass FastMath's entry points, where the ErrorSampler sits
+    private static KernelTable.KernelRef target(String function) {
+        return ErrorSampler.ENABLED ? new KernelTable.KernelRef(FastMath.class, function) : KernelTable.active(function);
+    }
+}
@@ -0,0 +1,117 @@
+package de.zonlykroks.asmplayground.math;
+
+import de.zonlykroks.asmplayground.impl.modes.ArcSinCosTanRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SqrtRedirectMode;
+import de.zonlykroks.asmplayground.math.sqrt.FastSqrt;
+import de.zonlykroks.asmplayground.math.trig.PiecewiseSinCosTanImplementation;
+import de.zonlykroks.asmplayground.math.trig.RivensFullMathSinCosTanImplementation;
+import de.zonlykroks.asmplayground.math.trig.TaylorSinCosTanImplementation;
+import de.zonlykroks.asmplayground.math.trig.fast.FastAsinImplementation;
+import de.zonlykroks.asmplayground.math.trig.fast.FastTrigImplementation;
+import org.apache.commons.math4.core.jdkmath.AccurateMath;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * The static method behind every (function, mode) pair, for code that binds to a kernel directly
+ * instead of going through the {@link FastMath} switch.
+ */
+public class KernelTable {
+    private static final MethodType DOUBLE_KERNEL = MethodType.methodType(double.class, double.class);
+    private static final MethodType FLOAT_KERNEL = MethodType.methodType(float.class, float.class);
+
+    /**
+     * A static kernel method, {@code owner.name} taking and returning the call site's primitive type.
+     */
+    public record KernelRef(Class<?> owner, String name) {
+
+        public String internalOwner() {
+            return owner.getName().replace('.', '/');
+        }
+
+        /**
+         * Kernels without a float overload (APACHE, JDK) are adapted from their double version for (F)F.
+         */
+        public MethodHandle handle(MethodType type) {
+            try {
+                return MethodHandles.publicLookup().findStatic(owner, name, type);
+            } catch (NoSuchMethodException e) {
+                if (type.equals(FLOAT_KERNEL)) {
+                    return MethodHandles.explicitCastArguments(handle(DOUBLE_KERNEL), FLOAT_KERNEL);
+                }
+                throw new IllegalStateException("Kernel " + owner.getName() + "." + name + type + " is missing", e);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Kernel " + owner.getName() + "." + name + type + " is missing", e);
+            }
+        }
+    }
+
+    /**
+     * @param function one of sin, cos, tan, asin, acos, atan, sqrt
+     * @return the kernel currently selected for {@code function}
+     */
+    public static KernelRef active(String function) {
+        return switch (function) {
+            case "sin", "cos", "tan" -> trig(function, FastMath.sinMode());
+            case "asin", "acos", "atan" -> arcTrig(function, FastMath.arcSinCosTanMode());
+            case "sqrt" -> sqrt(FastMath.sqrtMode());
+            default -> throw new IllegalArgumentException("Unknown function " + function);
+        };
+    }
+
+    public static KernelRef sqrt(SqrtRedirectMode mode) {
+        return switch (mode) {
+            case LUT -> new KernelRef(FastSqrt.class, "sqrt");
+            case LOG_LUT -> new KernelRef(FastSqrt.class, "logSqrt");
+            case INV_SQRT -> new KernelRef(FastSqrt.class, "inversedInvSqrt");
+            case JDK -> new KernelRef(Math.class, "sqrt");
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static KernelRef trig(String function, SinRedirectMode mode) {
+        return switch (mode) {
+            case PIECEWISE -> new KernelRef(PiecewiseSinCosTanImplementation.class, switch (function) {
+                case "sin" -> "fastPiecewisesin";
+                case "cos" -> "fastPiecewisecos";
+                default -> "fastPiecewiseTan";
+            });
+            case RIVENS -> new KernelRef(RivensFullMathSinCosTanImplementation.class, function);
+            case TAYLOR -> new KernelRef(TaylorSinCosTanImplementation.class, "taylor" + function);
+            case POLY -> new KernelRef(FastTrigImplementation.class, switch (function) {
+                case "sin" -> "fastSinPolynomial";
+                case "cos" -> "fastCosPolynomial";
+                default -> "fastTanPolynomial";
+            });
+            case LUT -> new KernelRef(FastTrigImplementation.class, switch (function) {
+                case "sin" -> "fastSinLUT";
+                case "cos" -> "fastCosLUT";
+                default -> "fastTanLUT";
+            });
+            case APACHE -> new KernelRef(AccurateMath.class, function);
+            case JDK -> new KernelRef(Math.class, function);
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+
+    public static KernelRef arcTrig(String function, ArcSinCosTanRedirectMode mode) {
+        return switch (mode) {
+            case POLY -> switch (function) {
+                case "asin" -> new KernelRef(FastAsinImplementation.class, "fastAsinPolynomial");
+                case "acos" -> new KernelRef(FastTrigImplementation.class, "fastAcosPolynomial");
+                default -> new KernelRef(FastTrigImplementation.class, "fastAtanPolynomial");
+            };
+            case LUT -> switch (function) {
+                case "asin" -> new KernelRef(FastAsinImplementation.class, "fastAsinLUT");
+                case "acos" -> new KernelRef(FastTrigImplementation.class, "fastAcosLUT");
+                default -> new KernelRef(FastTrigImplementation.class, "fastAtanLUT");
+            };
+            case APACHE -> new KernelRef(AccurateMath.class, function);
+            case JDK -> new KernelRef(Math.class, function);
+            case AUTO -> throw new IllegalArgumentException("AUTO has no kernel of its own");
+        };
+    }
+}
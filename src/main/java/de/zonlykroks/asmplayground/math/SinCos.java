@@ -0,0 +1,32 @@
+package de.zonlykroks.asmplayground.math;
+
+/**
+ * Result carriers for the fused sincos kernels, none of which allocate per call.
+ * <p>
+ * Float pairs are packed into one long, sin in the high and cos in the low 32 bits.
+ * Double pairs are written into a thread-confined two-slot array, which the caller
+ * has to read before the next sincos call on the same thread.
+ * </p>
+ */
+public class SinCos {
+    private static final ThreadLocal<double[]> SCRATCH = ThreadLocal.withInitial(() -> new double[2]);
+
+    public static long pack(float sin, float cos) {
+        return ((long) Float.floatToRawIntBits(sin) << 32) | (Float.floatToRawIntBits(cos) & 0xFFFFFFFFL);
+    }
+
+    public static float sin(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    public static float cos(long packed) {
+        return Float.intBitsToFloat((int) packed);
+    }
+
+    /**
+     * @return this thread's scratch slots, [0] = sin and [1] = cos
+     */
+    public static double[] scratch() {
+        return SCRATCH.get();
+    }
+}
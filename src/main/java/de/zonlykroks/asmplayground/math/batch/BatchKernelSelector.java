@@ -0,0 +1,32 @@
+package de.zonlykroks.asmplayground.math.batch;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+final class BatchKernelSelector {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    static final BatchKernels INSTANCE = select();
+
+    private BatchKernelSelector() {
+    }
+
+    private static BatchKernels select() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            // Loaded reflectively, so nothing touches the incubator classes when the module is missing
+            try {
+                BatchKernels kernels = (BatchKernels) Class.forName(BatchKernelSelector.class.getPackageName() + ".VectorBatchKernels")
+                        .getDeclaredConstructor()
+                        .newInstance();
+                LOGGER.info("Batch math kernels use the Vector API: {}", kernels.name());
+                return kernels;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOGGER.warn("Failed to load the Vector API batch kernels, falling back to scalar: {}", e.toString());
+            }
+        } else {
+            LOGGER.info("{} is not available, batch math kernels run scalar", VECTOR_MODULE);
+        }
+        return new ScalarBatchKernels();
+    }
+}
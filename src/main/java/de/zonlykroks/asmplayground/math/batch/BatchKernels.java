@@ -0,0 +1,34 @@
+package de.zonlykroks.asmplayground.math.batch;
+
+/**
+ * Array-shaped math over the index range {@code [from, to)}. Inputs and outputs may be the same array.
+ * <p>
+ * {@link #get()} returns the Vector API implementation when {@code jdk.incubator.vector} is part of the
+ * boot layer (e.g. {@code --add-modules jdk.incubator.vector}) and the scalar one otherwise. A normal
+ * launch does not add the module, only the dev runs and the JMH forks do. The Vector API implementation
+ * lives in the {@code vector} source set, the only one compiled against the module.
+ * </p>
+ */
+public interface BatchKernels {
+
+    static BatchKernels get() {
+        return BatchKernelSelector.INSTANCE;
+    }
+
+    String name();
+
+    void sin(double[] in, double[] out, int from, int to);
+
+    void cos(double[] in, double[] out, int from, int to);
+
+    /**
+     * Exact square roots, same as {@link Math#sqrt(double)} for every element.
+     */
+    void sqrt(double[] in, double[] out, int from, int to);
+
+    /**
+     * Normalizes the structure-of-arrays vectors (x[i], y[i], z[i]) in place, with the same rounding and
+     * the same near-zero cutoff as {@code Vec3.normalize()}.
+     */
+    void normalize(double[] x, double[] y, double[] z, int from, int to);
+}
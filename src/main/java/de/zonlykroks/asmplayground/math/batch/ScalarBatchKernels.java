@@ -0,0 +1,51 @@
+package de.zonlykroks.asmplayground.math.batch;
+
+import de.zonlykroks.asmplayground.math.FastMath;
+
+/**
+ * Plain loops over the scalar {@link FastMath} kernels, used when the Vector API is unavailable.
+ */
+public class ScalarBatchKernels implements BatchKernels {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void sin(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = FastMath.sin(in[i]);
+        }
+    }
+
+    @Override
+    public void cos(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = FastMath.cos(in[i]);
+        }
+    }
+
+    @Override
+    public void sqrt(double[] in, double[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = Math.sqrt(in[i]);
+        }
+    }
+
+    @Override
+    public void normalize(double[] x, double[] y, double[] z, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double length = Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+            if (length < 1.0E-5F) {
+                x[i] = 0.0;
+                y[i] = 0.0;
+                z[i] = 0.0;
+            } else {
+                x[i] /= length;
+                y[i] /= length;
+                z[i] /= length;
+            }
+        }
+    }
+}
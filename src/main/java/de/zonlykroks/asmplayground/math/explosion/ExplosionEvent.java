@@ -0,0 +1,78 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * One explosion handled by the rewritten ServerExplosion.explode(), from the ray march to the fire.
+ * Only explosions taking longer than the threshold are recorded, override it in the recording's
+ * settings with {@code asmplayground.Explosion#threshold}.
+ */
+@Name("asmplayground.Explosion")
+@Label("Explosion")
+@Category({"ASM Playground", "Explosion"})
+@Description("An explosion calculated by ExplosionHelper, split into its phases")
+@Threshold("5 ms")
+@StackTrace(false)
+final class ExplosionEvent extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(ExplosionEvent.class);
+
+    @Label("Radius")
+    float radius;
+
+    @Label("X")
+    double x;
+
+    @Label("Y")
+    double y;
+
+    @Label("Z")
+    double z;
+
+    @Label("Path")
+    @Description("How the rays were marched: generic, grid or parallel")
+    String path;
+
+    @Label("Rays Cast")
+    int rays;
+
+    @Label("Ray Steps")
+    long steps;
+
+    @Label("Block Lookups")
+    @Description("Ray steps that had to resolve a block, the rest reused the previous step's block")
+    long lookups;
+
+    @Label("Blocks Destroyed")
+    int blocksDestroyed;
+
+    @Label("Entities Hurt")
+    int entitiesHurt;
+
+    @Label("Ray March Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long rayNanos;
+
+    @Label("Entity Damage Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long entityNanos;
+
+    @Label("Block Interaction Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long blockNanos;
+
+    @Label("Fire Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long fireNanos;
+
+    // Checked before allocating, explosions stay garbage free while no recording asks for the event
+    static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,122 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.ServerExplosion;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Replacement for the ServerExplosion.getSeenPercent call in hurtEntities. Vanilla casts a grid of
+ * block raycasts from every entity in range towards the center, for an item farm that is thousands
+ * of Level.clip calls per explosion. Two shortcuts keep the exact vanilla result:
+ * <ul>
+ *     <li>Entities whose rays can only cross air-only sections see the whole explosion.</li>
+ *     <li>Non-living entities of the same type with the same bounding box cast the same rays with the
+ *     same collision context, stacked items share one result per explosion.</li>
+ * </ul>
+ * The memo lives in the explosion's {@link ExplosionWorkspace}. Only called on the server thread.
+ */
+public final class ExplosionExposure {
+
+    private ExplosionExposure() {
+    }
+
+    public static float getSeenPercent(Vec3 center, Entity entity, ServerExplosion explosion) {
+        ExplosionWorkspace workspace = ExplosionWorkspace.active(explosion);
+        if (workspace == null) {
+            return ServerExplosion.getSeenPercent(center, entity);
+        }
+
+        // An entity hurt by this explosion set off another one in between, the world may have changed
+        if (workspace.exposureEpoch != ExplosionWorkspace.acquisitions()) {
+            workspace.exposures.clear();
+            workspace.exposureEpoch = ExplosionWorkspace.acquisitions();
+        }
+
+        // Vanilla gives up on inverted boxes before casting anything
+        AABB box = entity.getBoundingBox();
+        if ((box.maxX - box.minX) * 2.0 + 1.0 < 0.0 || (box.maxY - box.minY) * 2.0 + 1.0 < 0.0 || (box.maxZ - box.minZ) * 2.0 + 1.0 < 0.0) {
+            return ServerExplosion.getSeenPercent(center, entity);
+        }
+
+        if (inOpenAir(entity.level(), workspace.captured ? workspace.snapshot : null, box, center)) {
+            ExplosionStats.countOpenAirExposure();
+            return 1.0F;
+        }
+
+        // Living entities add sneaking, held items and fluid walking to the collision context
+        if (entity instanceof LivingEntity) {
+            return ServerExplosion.getSeenPercent(center, entity);
+        }
+
+        ExposureKey key = new ExposureKey(entity.getType(), box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, entity.getY());
+        Float seen = workspace.exposures.get(key);
+        if (seen != null) {
+            ExplosionStats.countSharedExposure();
+            return seen;
+        }
+
+        float computed = ServerExplosion.getSeenPercent(center, entity);
+        workspace.exposures.put(key, computed);
+        return computed;
+    }
+
+    // Every block a clip from the box to the center can touch, with a block of slack for shapes
+    // reaching into the neighbour like fences, lies in a section that holds nothing but air
+    private static boolean inOpenAir(Level level, SectionSnapshot snapshot, AABB box, Vec3 center) {
+        int minSectionX = SectionPos.blockToSectionCoord(Mth.floor(Math.min(box.minX, center.x)) - 1);
+        int maxSectionX = SectionPos.blockToSectionCoord(Mth.floor(Math.max(box.maxX, center.x)) + 1);
+        int minSectionZ = SectionPos.blockToSectionCoord(Mth.floor(Math.min(box.minZ, center.z)) - 1);
+        int maxSectionZ = SectionPos.blockToSectionCoord(Mth.floor(Math.max(box.maxZ, center.z)) + 1);
+        // Outside the build height every block reads as void air
+        int minSectionY = Math.max(SectionPos.blockToSectionCoord(Mth.floor(Math.min(box.minY, center.y)) - 1), level.getMinSectionY());
+        int maxSectionY = Math.min(SectionPos.blockToSectionCoord(Mth.floor(Math.max(box.maxY, center.y)) + 1), level.getMaxSectionY());
+
+        for (int sx = minSectionX; sx <= maxSectionX; sx++) {
+            for (int sz = minSectionZ; sz <= maxSectionZ; sz++) {
+                LevelChunk chunk = null;
+                for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                    LevelChunkSection section = snapshot != null ? snapshot.section(sx, sy, sz) : null;
+                    if (section == null) {
+                        if (chunk == null) {
+                            chunk = level.getChunkSource().getChunkNow(sx, sz);
+                            if (chunk == null) {
+                                return false;
+                            }
+                        }
+                        section = chunk.getSection(level.getSectionIndexFromSectionY(sy));
+                    }
+                    if (!section.hasOnlyAir()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the entities the explosion actually damaged, otherwise the same as Entity.hurtServer.
+     */
+    public static boolean hurtServer(Entity entity, ServerLevel level, DamageSource source, float amount, ServerExplosion explosion) {
+        boolean hurt = entity.hurtServer(level, source, amount);
+        ExplosionWorkspace workspace = ExplosionWorkspace.active(explosion);
+        if (hurt && workspace != null) {
+            workspace.entitiesHurt++;
+        }
+        return hurt;
+    }
+
+    record ExposureKey(EntityType<?> type, double minX, double minY, double minZ,
+                               double maxX, double maxY, double maxZ, double y) {
+    }
+}
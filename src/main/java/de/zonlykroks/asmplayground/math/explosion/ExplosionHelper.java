@@ -1,103 +1,164 @@
 package de.zonlykroks.asmplayground.math.explosion;
 
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.math.FastMath;
+import de.zonlykroks.asmplayground.mixin.EntityBasedExplosionDamageCalculatorAccessor;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.boss.enderdragon.EndCrystal;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.item.PrimedTnt;
+import net.minecraft.world.entity.monster.Creeper;
+import net.minecraft.world.entity.projectile.LargeFireball;
+import net.minecraft.world.level.EntityBasedExplosionDamageCalculator;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.ServerExplosion;
+import net.minecraft.world.level.block.AirBlock;
+import net.minecraft.world.level.block.BaseFireBlock;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.ExplosionDamageCalculator;
 import net.minecraft.world.level.Explosion;
+import net.minecraft.world.phys.Vec3;
 
 import java.util.*;
 
 @SuppressWarnings("unused")
 public class ExplosionHelper {
-    // Precomputed, normalized directions for the 1,352 border samples
-    private static final Vec3d[] DIRECTIONS;
+    static final float STEP_COST = 0.22500001F;
+    static final float STEP_LEN = 0.3F;
+
+    // Normalized directions for the 1,352 border samples, in vanilla's j/k/l order so every ray
+    // consumes the same random.nextFloat() as it would in ServerExplosion.calculateExplodedPositions
+    static final int RAY_COUNT;
+    static final double[] DIR_X;
+    static final double[] DIR_Y;
+    static final double[] DIR_Z;
     static {
         final int SIZE = 16;
-        final double STEP = 1.0 / (SIZE - 1);
-        Set<Vec3d> dirs = new HashSet<>(SIZE*SIZE*SIZE);
-        for (int x = 0; x < SIZE; x++) {
-            for (int y = 0; y < SIZE; y++) {
-                for (int z = 0; z < SIZE; z++) {
-                    if (x == 0 || x == SIZE-1
-                            || y == 0 || y == SIZE-1
-                            || z == 0 || z == SIZE-1) {
-                        double dx = x * STEP * 2.0 - 1.0;
-                        double dy = y * STEP * 2.0 - 1.0;
-                        double dz = z * STEP * 2.0 - 1.0;
-                        double mag = Math.sqrt(dx*dx + dy*dy + dz*dz);
-                        dirs.add(new Vec3d(dx/mag, dy/mag, dz/mag));
+        double[] xs = new double[SIZE * SIZE * SIZE];
+        double[] ys = new double[xs.length];
+        double[] zs = new double[xs.length];
+        int n = 0;
+        for (int j = 0; j < SIZE; j++) {
+            for (int k = 0; k < SIZE; k++) {
+                for (int l = 0; l < SIZE; l++) {
+                    if (j == 0 || j == SIZE-1
+                            || k == 0 || k == SIZE-1
+                            || l == 0 || l == SIZE-1) {
+                        xs[n] = j / 15.0F * 2.0F - 1.0F;
+                        ys[n] = k / 15.0F * 2.0F - 1.0F;
+                        zs[n] = l / 15.0F * 2.0F - 1.0F;
+                        n++;
                     }
                 }
             }
         }
-        DIRECTIONS = dirs.toArray(new Vec3d[0]);
+        // Same division by Math.sqrt as vanilla, the batch kernel is bit exact
+        FastMath.normalize(xs, ys, zs, 0, n);
+        RAY_COUNT = n;
+        DIR_X = Arrays.copyOf(xs, n);
+        DIR_Y = Arrays.copyOf(ys, n);
+        DIR_Z = Arrays.copyOf(zs, n);
     }
 
     /**
      * Exact‑parity, optimized explosion ray‑trace.
      *
      * @param explosion   the vanilla Explosion instance
-     * @param center      the center BlockPos of the explosion
+     * @param center      the center of the explosion
      * @param radius      the explosion radius
      * @param level       the Level; used for block lookups and isInWorldBounds
      * @param calculator  the vanilla ExplosionDamageCalculator
      * @param random      the same Random used by the Explosion
-     * @return exactly the same List<BlockPos> as vanilla, but faster and with fewer allocations
+     * @return a workspace holding exactly the positions vanilla would explode, in the same order;
+     *         hand it to {@link #interactWithBlocks}, {@link #createFire} and finally {@link ExplosionWorkspace#release}
      */
-    public static ObjectArrayList<BlockPos> calculateExplodedPositions(
+    public static ExplosionWorkspace calculateExplodedPositions(
             Explosion explosion,
-            BlockPos center,
+            Vec3 center,
             float radius,
             Level level,
             ExplosionDamageCalculator calculator,
             RandomSource random
     ) {
-        ObjectArrayList<BlockPos> result = new ObjectArrayList<>();
-        LongOpenHashSet visited = new LongOpenHashSet();
-        final float STEP_COST = 0.22500001F;
-        final double STEP_LEN = 0.3;
-        BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
-
-        for (Vec3d dir : DIRECTIONS) {
-            double dx = dir.x;
-            double dy = dir.y;
-            double dz = dir.z;
+        ExplosionWorkspace workspace = ExplosionWorkspace.acquire(explosion, center, radius);
+        long start = System.nanoTime();
+        ExplosionStats stats = workspace.stats;
+
+        // Custom calculators may look at the world or the position, they keep resolving every step
+        SectionSnapshot snapshot = workspace.snapshot;
+        // Rays may reach into unloaded chunks, those have to go through the level
+        if (usesVanillaResistance(calculator) && snapshot.capture(level, center, radius)) {
+            workspace.captured = true;
+            if (ModConfig.INSTANCE.parallelExplosions && radius >= ModConfig.INSTANCE.parallelExplosionMinRadius) {
+                workspace.path = "parallel";
+                calculateInParallel(workspace, center, radius, random);
+            } else {
+                workspace.path = "grid";
+                calculateOnGrid(workspace, center, radius, random);
+            }
+            stats.publish(center, radius);
+            workspace.rayNanos = System.nanoTime() - start;
+            return workspace;
+        }
+
+        workspace.path = "generic";
+
+        BlockPos.MutableBlockPos mutablePos = workspace.mutablePos;
+
+        for (int ray = 0; ray < RAY_COUNT; ray++) {
+            double dx = DIR_X[ray];
+            double dy = DIR_Y[ray];
+            double dz = DIR_Z[ray];
             float strength = radius * (0.7F + random.nextFloat() * 0.6F);
 
-            double px = center.getX() + 0.5;
-            double py = center.getY() + 0.5;
-            double pz = center.getZ() + 0.5;
+            double px = center.x;
+            double py = center.y;
+            double pz = center.z;
+
+            // A 0.3 step often lands in the block of the previous step, its state and resistance still apply
+            boolean hasBlock = false;
+            boolean recorded = false;
+            BlockState bs = null;
+            Optional<Float> resistance = Optional.empty();
 
             while (strength > 0.0F) {
-                int xi = (int) Math.floor(px);
-                int yi = (int) Math.floor(py);
-                int zi = (int) Math.floor(pz);
-                mutablePos.set(xi, yi, zi);
+                int x = Mth.floor(px);
+                int y = Mth.floor(py);
+                int z = Mth.floor(pz);
+                stats.steps++;
 
-                if (!level.isInWorldBounds(mutablePos)) {
-                    break;
-                }
+                if (hasBlock && x == mutablePos.getX() && y == mutablePos.getY() && z == mutablePos.getZ()) {
+                    stats.lookupsAvoided++;
+                } else {
+                    mutablePos.set(x, y, z);
 
-                BlockState bs = level.getBlockState(mutablePos);
-                FluidState fs = level.getFluidState(mutablePos);
+                    if (!level.isInWorldBounds(mutablePos)) {
+                        break;
+                    }
 
-                // Avoid Optional boxing
-                float resistance = calculator.getBlockExplosionResistance(
-                        explosion, level, mutablePos, bs, fs
-                ).orElse(0.0F);
-                strength -= (resistance + 0.3F) * 0.3F;
+                    bs = level.getBlockState(mutablePos);
+                    FluidState fs = level.getFluidState(mutablePos);
+                    resistance = calculator.getBlockExplosionResistance(explosion, level, mutablePos, bs, fs);
+                    hasBlock = true;
+                    recorded = false;
+                }
+
+                if (resistance.isPresent()) {
+                    strength -= (resistance.get() + 0.3F) * 0.3F;
+                }
 
-                if (strength > 0.0F && calculator.shouldBlockExplode(
+                // Once this ray recorded the block, asking again could only add a duplicate
+                if (strength > 0.0F && !recorded && calculator.shouldBlockExplode(
                         explosion, level, mutablePos, bs, strength)) {
-                    long key = mutablePos.asLong();
-                    if (visited.add(key)) {
-                        result.add(new BlockPos(xi, yi, zi));
-                    }
+                    recorded = true;
+                    workspace.record(x, y, z);
                 }
 
                 px += dx * STEP_LEN;
@@ -107,10 +168,195 @@ public class ExplosionHelper {
             }
         }
 
-        return result;
+        stats.publish(center, radius);
+        workspace.rayNanos = System.nanoTime() - start;
+        return workspace;
     }
 
-    public static void customShuffle(List<BlockPos> list, RandomSource random) {
+    private static void calculateOnGrid(ExplosionWorkspace workspace, Vec3 center, float radius, RandomSource random) {
+        LongArrayList rayHits = workspace.rayHits;
+
+        for (int ray = 0; ray < RAY_COUNT; ray++) {
+            float strength = radius * (0.7F + random.nextFloat() * 0.6F);
+            rayHits.clear();
+            march(workspace.snapshot, center.x, center.y, center.z, DIR_X[ray], DIR_Y[ray], DIR_Z[ray], strength, rayHits, workspace.stats);
+
+            for (int i = 0; i < rayHits.size(); i++) {
+                long packed = rayHits.getLong(i);
+                workspace.record(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+            }
+        }
+    }
+
+    private static void calculateInParallel(ExplosionWorkspace workspace, Vec3 center, float radius, RandomSource random) {
+        // Draw the strengths up front in ray order, the random sequence stays the one vanilla would consume
+        float[] strengths = new float[RAY_COUNT];
+        for (int ray = 0; ray < RAY_COUNT; ray++) {
+            strengths[ray] = radius * (0.7F + random.nextFloat() * 0.6F);
+        }
+
+        long[][] hits = ParallelExplosionRaycaster.cast(workspace.snapshot, center, strengths, workspace.stats);
+
+        // Merging in ray order keeps the first-seen order of the serial walk
+        for (long[] rayHits : hits) {
+            for (long packed : rayHits) {
+                workspace.record(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+            }
+        }
+    }
+
+    // A ray loses at least STEP_COST per step and moves at most STEP_LEN per axis, plus a block of slack
+    static double maxReach(float radius) {
+        return (radius * 1.3F / STEP_COST + 1.0) * STEP_LEN + 1.0;
+    }
+
+    /**
+     * ServerExplosion.interactWithBlocks over the packed positions. Positions only become BlockPos
+     * when a block needs one; air has nothing to do on an explosion hit and is skipped.
+     */
+    public static void interactWithBlocks(ServerExplosion explosion, ServerLevel level, ExplosionWorkspace workspace) {
+        long start = System.nanoTime();
+        LongArrayList positions = workspace.positions;
+        customShuffle(positions, level.random);
+
+        for (int i = 0; i < positions.size(); i++) {
+            long packed = positions.getLong(i);
+            BlockState state = level.getBlockState(workspace.mutablePos.set(packed));
+            if (state.getBlock().getClass() == AirBlock.class) {
+                continue;
+            }
+            state.onExplosionHit(level, BlockPos.of(packed), explosion, workspace.dropCollector);
+        }
+
+        for (StackCollector collector : workspace.stacks) {
+            Block.popResource(level, collector.pos, collector.itemStack);
+        }
+        workspace.stacks.clear();
+        workspace.blockNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * ServerExplosion.createFire over the packed positions.
+     */
+    public static void createFire(ServerLevel level, ExplosionWorkspace workspace) {
+        long start = System.nanoTime();
+        LongArrayList positions = workspace.positions;
+        BlockPos.MutableBlockPos pos = workspace.mutablePos;
+        BlockPos.MutableBlockPos below = workspace.belowPos;
+
+        for (int i = 0; i < positions.size(); i++) {
+            long packed = positions.getLong(i);
+            pos.set(packed);
+            if (level.random.nextInt(3) == 0
+                    && level.getBlockState(pos).isAir()
+                    && level.getBlockState(below.set(pos.getX(), pos.getY() - 1, pos.getZ())).isSolidRender()) {
+                BlockPos firePos = BlockPos.of(packed);
+                level.setBlockAndUpdate(firePos, BaseFireBlock.getState(level, firePos));
+            }
+        }
+        workspace.fireNanos = System.nanoTime() - start;
+    }
+
+    // Same merge as ServerExplosion.addOrAppendStack
+    static void addOrAppendStack(List<StackCollector> stacks, ItemStack stack, BlockPos pos) {
+        for (StackCollector collector : stacks) {
+            collector.tryMerge(stack);
+            if (stack.isEmpty()) {
+                return;
+            }
+        }
+        stacks.add(new StackCollector(pos, stack));
+    }
+
+    static final class StackCollector {
+        final BlockPos pos;
+        ItemStack itemStack;
+
+        StackCollector(BlockPos pos, ItemStack itemStack) {
+            this.pos = pos;
+            this.itemStack = itemStack;
+        }
+
+        void tryMerge(ItemStack other) {
+            if (ItemEntity.areMergable(this.itemStack, other)) {
+                this.itemStack = ItemEntity.merge(this.itemStack, other, 16);
+            }
+        }
+    }
+
+    /**
+     * Marches a single ray through the snapshot and appends every position it destroys to {@code hits}.
+     * Mirrors the serial loop for calculators that pass {@link #usesVanillaResistance}.
+     */
+    static void march(SectionSnapshot snapshot, double px, double py, double pz,
+                      double dx, double dy, double dz, float strength, LongArrayList hits, ExplosionStats stats) {
+        boolean hasBlock = false;
+        boolean recorded = false;
+        int lastX = 0;
+        int lastY = 0;
+        int lastZ = 0;
+        float resistance = SectionSnapshot.NO_RESISTANCE;
+
+        while (strength > 0.0F) {
+            int x = Mth.floor(px);
+            int y = Mth.floor(py);
+            int z = Mth.floor(pz);
+            stats.steps++;
+
+            if (hasBlock && x == lastX && y == lastY && z == lastZ) {
+                stats.lookupsAvoided++;
+            } else {
+                if (!snapshot.isInWorldBounds(x, y, z)) {
+                    break;
+                }
+
+                resistance = snapshot.resistance(x, y, z);
+                lastX = x;
+                lastY = y;
+                lastZ = z;
+                hasBlock = true;
+                recorded = false;
+            }
+
+            if (resistance != SectionSnapshot.NO_RESISTANCE) {
+                strength -= (resistance + 0.3F) * 0.3F;
+            }
+
+            // shouldBlockExplode is always true for the vanilla calculators
+            if (strength > 0.0F && !recorded) {
+                recorded = true;
+                hits.add(BlockPos.asLong(x, y, z));
+            }
+
+            px += dx * STEP_LEN;
+            py += dy * STEP_LEN;
+            pz += dz * STEP_LEN;
+            strength -= STEP_COST;
+        }
+    }
+
+    /**
+     * True when the calculator only looks at the block and fluid state, so the rays can march over
+     * a section snapshot, on or off the server thread. Anything else (respawn anchors, wind charges,
+     * minecart TNT, modded calculators) may read the world and stays on the serial path.
+     */
+    static boolean usesVanillaResistance(ExplosionDamageCalculator calculator) {
+        Class<?> type = calculator.getClass();
+        if (type == ExplosionDamageCalculator.class) {
+            return true;
+        }
+        if (type != EntityBasedExplosionDamageCalculator.class) {
+            return false;
+        }
+
+        Class<?> source = ((EntityBasedExplosionDamageCalculatorAccessor) calculator).asmplayground$getSource().getClass();
+        return source == PrimedTnt.class
+                || source == Creeper.class
+                || source == EndCrystal.class
+                || source == LargeFireball.class;
+    }
+
+    public static void customShuffle(LongArrayList list, RandomSource random) {
         int n = list.size();
         int blockSize = 2;
 
@@ -119,28 +365,22 @@ public class ExplosionHelper {
             if (j + blockSize > n) break;
 
             for (int k = 0; k < blockSize; k++) {
-                Collections.swap(list, i + k, j + k);
+                list.set(i + k, list.set(j + k, list.getLong(i + k)));
             }
         }
     }
 
+    public static void customShuffle(List<BlockPos> list, RandomSource random) {
+        int n = list.size();
+        int blockSize = 2;
 
-    // Simple value‑object for precomputed directions
-    private record Vec3d(double x, double y, double z) {
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof Vec3d(double x1, double y1, double z1))) return false;
-            return Double.compare(x1, x) == 0
-                    && Double.compare(y1, y) == 0
-                    && Double.compare(z1, z) == 0;
-        }
+        for (int i = 0; i < n; i += blockSize * 2) {
+            int j = i + blockSize;
+            if (j + blockSize > n) break;
 
-        @Override
-        public int hashCode() {
-            long bits = Double.doubleToLongBits(x);
-            bits = 31 * bits + Double.doubleToLongBits(y);
-            bits = 31 * bits + Double.doubleToLongBits(z);
-            return Long.hashCode(bits);
+            for (int k = 0; k < blockSize; k++) {
+                Collections.swap(list, i + k, j + k);
+            }
         }
     }
-}
\ No newline at end of file
+}
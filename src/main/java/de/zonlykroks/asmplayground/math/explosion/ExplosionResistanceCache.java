@@ -0,0 +1,56 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resistances shared by every explosion in a tick. A TNT cannon sets off dozens of explosions at
+ * nearly the same spot, with this they resolve each block once instead of once per explosion.
+ * Block changes clear their cell through the LevelChunkSection mixin, so later explosions still
+ * see the blocks earlier ones destroyed. Only touched from the server thread, the workers of a
+ * parallel explosion get the arrays handed over before they start.
+ */
+public final class ExplosionResistanceCache {
+    // Enough for a cannon's worth of sections without holding on to megabytes between bursts
+    private static final int MAX_POOLED = 64;
+
+    private static final List<ResistanceCacheHolder> ACTIVE = new ArrayList<>();
+    private static final ArrayDeque<int[]> POOL = new ArrayDeque<>();
+
+    private ExplosionResistanceCache() {
+    }
+
+    static int[] of(LevelChunkSection section) {
+        ResistanceCacheHolder holder = (ResistanceCacheHolder) section;
+        int[] resistances = holder.asmplayground$getResistances();
+        if (resistances == null) {
+            resistances = POOL.isEmpty() ? new int[4096] : POOL.pop();
+            holder.asmplayground$setResistances(resistances);
+            ACTIVE.add(holder);
+        }
+        return resistances;
+    }
+
+    /**
+     * Drops every cache of the tick, called once the server finished ticking all levels.
+     */
+    public static void endTick() {
+        if (ACTIVE.isEmpty()) {
+            return;
+        }
+
+        for (ResistanceCacheHolder holder : ACTIVE) {
+            int[] resistances = holder.asmplayground$getResistances();
+            holder.asmplayground$setResistances(null);
+            if (POOL.size() < MAX_POOLED) {
+                Arrays.fill(resistances, 0);
+                POOL.push(resistances);
+            }
+        }
+        ACTIVE.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import net.minecraft.world.phys.Vec3;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the ray steps of one explosion and how many of them reused the block of the previous
+ * step instead of looking it up again. Published into running totals once the explosion is done.
+ */
+public final class ExplosionStats {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+
+    private static final LongAdder EXPLOSIONS = new LongAdder();
+    private static final LongAdder STEPS = new LongAdder();
+    private static final LongAdder LOOKUPS_AVOIDED = new LongAdder();
+    private static final LongAdder OPEN_AIR_EXPOSURES = new LongAdder();
+    private static final LongAdder SHARED_EXPOSURES = new LongAdder();
+
+    int steps;
+    int lookupsAvoided;
+
+    void reset() {
+        steps = 0;
+        lookupsAvoided = 0;
+    }
+
+    // Parallel workers count into their own instance and fold it in when their rays are done
+    synchronized void merge(ExplosionStats other) {
+        steps += other.steps;
+        lookupsAvoided += other.lookupsAvoided;
+    }
+
+    void publish(Vec3 center, float radius) {
+        EXPLOSIONS.increment();
+        STEPS.add(steps);
+        LOOKUPS_AVOIDED.add(lookupsAvoided);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Explosion at {} with radius {}: {} ray steps, {} lookups avoided", center, radius, steps, lookupsAvoided);
+        }
+    }
+
+    static void countOpenAirExposure() {
+        OPEN_AIR_EXPOSURES.increment();
+    }
+
+    static void countSharedExposure() {
+        SHARED_EXPOSURES.increment();
+    }
+
+    public static long explosions() {
+        return EXPLOSIONS.sum();
+    }
+
+    public static long steps() {
+        return STEPS.sum();
+    }
+
+    public static long lookupsAvoided() {
+        return LOOKUPS_AVOIDED.sum();
+    }
+
+    public static long openAirExposures() {
+        return OPEN_AIR_EXPOSURES.sum();
+    }
+
+    public static long sharedExposures() {
+        return SHARED_EXPOSURES.sum();
+    }
+}
@@ -0,0 +1,229 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Explosion;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Everything one explosion needs from the ray march to the fire, kept around so a steady stream of
+ * explosions produces no garbage. The exploded positions are packed longs in {@link #positions},
+ * deduplicated through a bitset over the bounding box the rays can reach.
+ * <p>
+ * Confined to the thread that acquired it. An explosion set off from inside another one (an end
+ * crystal destroyed by hurtEntities) takes its own workspace, the outer one is still in use.
+ */
+public final class ExplosionWorkspace {
+    private static final ThreadLocal<ArrayDeque<ExplosionWorkspace>> FREE = ThreadLocal.withInitial(ArrayDeque::new);
+    // Explosions only run on the server thread, this maps the ones in flight to their workspace
+    private static final Map<Explosion, ExplosionWorkspace> ACTIVE = new IdentityHashMap<>();
+    private static int acquisitions;
+
+    // 512 KiB of bits, radius ~90, larger boxes dedupe through a hash set instead
+    private static final long MAX_VISITED_BITS = 1L << 22;
+
+    final LongArrayList positions = new LongArrayList();
+    final LongArrayList rayHits = new LongArrayList();
+    final SectionSnapshot snapshot = new SectionSnapshot();
+    final ExplosionStats stats = new ExplosionStats();
+    final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+    final BlockPos.MutableBlockPos belowPos = new BlockPos.MutableBlockPos();
+
+    // Drops merged the way ServerExplosion.addOrAppendStack does it
+    final List<ExplosionHelper.StackCollector> stacks = new ArrayList<>();
+    final BiConsumer<ItemStack, BlockPos> dropCollector = (stack, pos) -> ExplosionHelper.addOrAppendStack(stacks, stack, pos);
+
+    Explosion explosion;
+    // Whether the snapshot holds this explosion's sections, custom calculators skip capturing
+    boolean captured;
+
+    // Exposure results of entities sharing type and bounding box, see ExplosionExposure
+    final Map<ExplosionExposure.ExposureKey, Float> exposures = new HashMap<>();
+    int exposureEpoch;
+
+    // Phase timings and counters, reported through ExplosionEvent
+    ExplosionEvent event;
+    String path;
+    int entitiesHurt;
+    long phaseStart;
+    long rayNanos;
+    long entityNanos;
+    long blockNanos;
+    long fireNanos;
+
+    private long[] visited = new long[0];
+    private int visitedWords;
+    private LongOpenHashSet visitedFallback;
+    private int minX;
+    private int minY;
+    private int minZ;
+    private int sizeX;
+    private int sizeY;
+    private int sizeZ;
+
+    private ExplosionWorkspace() {
+    }
+
+    static ExplosionWorkspace acquire(Explosion explosion, Vec3 center, float radius) {
+        ExplosionWorkspace workspace = FREE.get().poll();
+        if (workspace == null) {
+            workspace = new ExplosionWorkspace();
+        }
+        workspace.reset(explosion, center, ExplosionHelper.maxReach(radius));
+        if (workspace.event != null) {
+            workspace.event.radius = radius;
+            workspace.event.x = center.x;
+            workspace.event.y = center.y;
+            workspace.event.z = center.z;
+        }
+        ACTIVE.put(explosion, workspace);
+        return workspace;
+    }
+
+    /**
+     * The workspace of an explosion between calculateExplodedPositions and release, or null.
+     */
+    static ExplosionWorkspace active(Explosion explosion) {
+        return ACTIVE.get(explosion);
+    }
+
+    // Bumped for every explosion, anything cached from the world before the bump may be stale
+    static int acquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * Hands the workspace back once the explosion is done with its positions.
+     */
+    public static void release(ExplosionWorkspace workspace) {
+        ACTIVE.remove(workspace.explosion);
+        if (workspace.event != null) {
+            workspace.commitEvent();
+        }
+
+        workspace.explosion = null;
+        workspace.snapshot.release();
+        workspace.stacks.clear();
+        workspace.exposures.clear();
+        FREE.get().push(workspace);
+    }
+
+    // Called by the rewritten explode() around ServerExplosion.hurtEntities
+    public static void beginEntityPhase(ExplosionWorkspace workspace) {
+        workspace.phaseStart = System.nanoTime();
+    }
+
+    public static void endEntityPhase(ExplosionWorkspace workspace) {
+        workspace.entityNanos = System.nanoTime() - workspace.phaseStart;
+    }
+
+    private void reset(Explosion explosion, Vec3 center, double reach) {
+        this.explosion = explosion;
+        captured = false;
+        positions.clear();
+        stacks.clear();
+        exposures.clear();
+        exposureEpoch = ++acquisitions;
+        stats.reset();
+        entitiesHurt = 0;
+        rayNanos = 0;
+        entityNanos = 0;
+        blockNanos = 0;
+        fireNanos = 0;
+        path = null;
+        if (ExplosionEvent.enabled()) {
+            event = new ExplosionEvent();
+            event.begin();
+        }
+
+        minX = Mth.floor(center.x - reach);
+        minY = Mth.floor(center.y - reach);
+        minZ = Mth.floor(center.z - reach);
+        sizeX = Mth.floor(center.x + reach) - minX + 1;
+        sizeY = Mth.floor(center.y + reach) - minY + 1;
+        sizeZ = Mth.floor(center.z + reach) - minZ + 1;
+
+        long bits = (long) sizeX * sizeY * sizeZ;
+        if (bits > MAX_VISITED_BITS) {
+            visitedWords = 0;
+            if (visitedFallback == null) {
+                visitedFallback = new LongOpenHashSet();
+            }
+            visitedFallback.clear();
+            return;
+        }
+
+        visitedWords = (int) ((bits + 63) >>> 6);
+        if (visited.length < visitedWords) {
+            visited = new long[visitedWords];
+        } else {
+            Arrays.fill(visited, 0, visitedWords, 0L);
+        }
+        if (visitedFallback != null) {
+            visitedFallback.clear();
+        }
+    }
+
+    private void commitEvent() {
+        ExplosionEvent event = this.event;
+        this.event = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.rays = ExplosionHelper.RAY_COUNT;
+            event.steps = stats.steps;
+            event.lookups = stats.steps - stats.lookupsAvoided;
+            event.blocksDestroyed = positions.size();
+            event.entitiesHurt = entitiesHurt;
+            event.rayNanos = rayNanos;
+            event.entityNanos = entityNanos;
+            event.blockNanos = blockNanos;
+            event.fireNanos = fireNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Appends the position unless an earlier ray already recorded it.
+     */
+    void record(int x, int y, int z) {
+        int dx = x - minX;
+        int dy = y - minY;
+        int dz = z - minZ;
+        if (visitedWords == 0 || dx < 0 || dy < 0 || dz < 0 || dx >= sizeX || dy >= sizeY || dz >= sizeZ) {
+            recordOutsideBox(x, y, z);
+            return;
+        }
+
+        int bit = (dx * sizeY + dy) * sizeZ + dz;
+        long mask = 1L << bit;
+        long word = visited[bit >>> 6];
+        if ((word & mask) == 0) {
+            visited[bit >>> 6] = word | mask;
+            positions.add(BlockPos.asLong(x, y, z));
+        }
+    }
+
+    // Rays never leave the reach box, this only serves huge explosions that skip the bitset
+    private void recordOutsideBox(int x, int y, int z) {
+        if (visitedFallback == null) {
+            visitedFallback = new LongOpenHashSet();
+        }
+        long packed = BlockPos.asLong(x, y, z);
+        if (visitedFallback.add(packed)) {
+            positions.add(packed);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Marches the explosion rays on a dedicated ForkJoin pool. Every ray writes its hits into its own
+ * slot, so the caller can merge them in ray order and get the serial result back.
+ */
+final class ParallelExplosionRaycaster {
+    // Rays per leaf task, small enough to balance TNT with mixed terrain, large enough to amortize the fork
+    private static final int RAYS_PER_TASK = 64;
+
+    private ParallelExplosionRaycaster() {
+    }
+
+    // Kept off the common pool so worldgen and mods using it can't stall an explosion mid-tick
+    private static final class Pool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("ASMPlayground Explosion Worker-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null,
+                false
+        );
+    }
+
+    /**
+     * @param strengths the pre-drawn initial strength of every ray, indexed like {@link ExplosionHelper#DIR_X}
+     * @return the packed positions every ray destroys, in the order it hit them
+     */
+    static long[][] cast(SectionSnapshot snapshot, Vec3 center, float[] strengths, ExplosionStats stats) {
+        long[][] hits = new long[strengths.length][];
+        Pool.INSTANCE.invoke(new RayTask(snapshot, center, strengths, hits, stats, 0, strengths.length));
+        return hits;
+    }
+
+    private static final class RayTask extends RecursiveAction {
+        private final SectionSnapshot snapshot;
+        private final Vec3 center;
+        private final float[] strengths;
+        private final long[][] hits;
+        private final ExplosionStats stats;
+        private final int from;
+        private final int to;
+
+        RayTask(SectionSnapshot snapshot, Vec3 center, float[] strengths, long[][] hits, ExplosionStats stats, int from, int to) {
+            this.snapshot = snapshot;
+            this.center = center;
+            this.strengths = strengths;
+            this.hits = hits;
+            this.stats = stats;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > RAYS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RayTask(snapshot, center, strengths, hits, stats, from, mid),
+                        new RayTask(snapshot, center, strengths, hits, stats, mid, to));
+                return;
+            }
+
+            LongArrayList rayHits = new LongArrayList();
+            ExplosionStats local = new ExplosionStats();
+            for (int ray = from; ray < to; ray++) {
+                rayHits.clear();
+                ExplosionHelper.march(snapshot, center.x, center.y, center.z,
+                        ExplosionHelper.DIR_X[ray], ExplosionHelper.DIR_Y[ray], ExplosionHelper.DIR_Z[ray],
+                        strengths[ray], rayHits, local);
+                hits[ray] = rayHits.toLongArray();
+            }
+            stats.merge(local);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+/**
+ * Implemented on LevelChunkSection by mixin, carries the explosion resistances resolved in the
+ * current tick. Cells are laid out like the section's own storage, (y << 8) | (z << 4) | x.
+ */
+public interface ResistanceCacheHolder {
+    int[] asmplayground$getResistances();
+
+    void asmplayground$setResistances(int[] resistances);
+}
@@ -0,0 +1,207 @@
+package de.zonlykroks.asmplayground.math.explosion;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import net.minecraft.core.SectionPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+
+/**
+ * The chunk sections an explosion can reach, captured on the server thread so the rays can be
+ * marched on worker threads. Nothing writes to the world until the explosion has been calculated,
+ * so reading the live sections from the workers is safe for the duration of one calculation.
+ * <p>
+ * Neighbouring rays cross the same blocks over and over, so resolved resistances are kept in a
+ * dense grid covering the reach of the explosion, or in the tick-wide {@link ExplosionResistanceCache}
+ * when explosions share their resistances.
+ * <p>
+ * Owned by an {@link ExplosionWorkspace} and recaptured for every explosion.
+ */
+final class SectionSnapshot {
+    // Air without fluid, vanilla's calculator returns Optional.empty() and the ray loses nothing
+    static final float NO_RESISTANCE = -1.0F;
+
+    private static final int WORLD_BORDER = 30000000;
+    // Past this many blocks (radius ~25) the grid costs more memory than the lookups it saves
+    private static final int MAX_GRID_CELLS = 1 << 18;
+
+    private int minSectionX;
+    private int minSectionY;
+    private int minSectionZ;
+    private int sizeX;
+    private int sizeY;
+    private int sizeZ;
+    private LevelChunkSection[] sections = new LevelChunkSection[0];
+    // Shared per-section caches, parallel to sections, null unless explosions share resistances
+    private int[][] sectionCaches = new int[0][];
+    private boolean shared;
+    private int minY;
+    private int maxY;
+
+    private int gridMinX;
+    private int gridMinY;
+    private int gridMinZ;
+    private int gridSizeY;
+    private int gridSizeZ;
+    // Inverted raw float bits of every resolved resistance, 0 marks a block nobody looked at yet.
+    // Workers racing on a cell write the same value, so plain array stores are enough
+    private int[] grid = new int[0];
+    private boolean hasGrid;
+
+    /**
+     * Captures every section within reach of the strongest possible ray, or returns false when one
+     * of the chunks is not loaded. Reuses the arrays of the previous capture.
+     */
+    boolean capture(Level level, Vec3 center, float radius) {
+        double reach = ExplosionHelper.maxReach(radius);
+
+        minSectionX = SectionPos.blockToSectionCoord(Mth.floor(center.x - reach));
+        minSectionZ = SectionPos.blockToSectionCoord(Mth.floor(center.z - reach));
+        // Rays leaving the build height stop at the bounds check, they never read outside of it
+        minSectionY = Math.max(SectionPos.blockToSectionCoord(Mth.floor(center.y - reach)), level.getMinSectionY());
+        int maxSectionY = Math.min(SectionPos.blockToSectionCoord(Mth.floor(center.y + reach)), level.getMaxSectionY());
+
+        sizeX = SectionPos.blockToSectionCoord(Mth.floor(center.x + reach)) - minSectionX + 1;
+        sizeY = Math.max(0, maxSectionY - minSectionY + 1);
+        sizeZ = SectionPos.blockToSectionCoord(Mth.floor(center.z + reach)) - minSectionZ + 1;
+        minY = level.getMinY();
+        maxY = level.getMaxY();
+
+        int count = sizeX * sizeY * sizeZ;
+        if (sections.length < count) {
+            sections = new LevelChunkSection[count];
+        }
+
+        for (int sx = 0; sx < sizeX; sx++) {
+            for (int sz = 0; sz < sizeZ; sz++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(minSectionX + sx, minSectionZ + sz);
+                if (chunk == null) {
+                    release();
+                    return false;
+                }
+                for (int sy = 0; sy < sizeY; sy++) {
+                    sections[(sx * sizeY + sy) * sizeZ + sz] =
+                            chunk.getSection(level.getSectionIndexFromSectionY(minSectionY + sy));
+                }
+            }
+        }
+
+        shared = ModConfig.INSTANCE.shareExplosionResistances;
+        if (shared) {
+            attachSectionCaches(count);
+        } else {
+            allocateGrid(center, reach);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the section references, a pooled snapshot must not keep unloaded chunks alive.
+     */
+    void release() {
+        Arrays.fill(sections, null);
+        Arrays.fill(sectionCaches, null);
+    }
+
+    private void attachSectionCaches(int count) {
+        if (sectionCaches.length < count) {
+            sectionCaches = new int[count][];
+        }
+        for (int i = 0; i < count; i++) {
+            // Air-only sections are answered without a lookup, they don't need a cache
+            sectionCaches[i] = sections[i].hasOnlyAir() ? null : ExplosionResistanceCache.of(sections[i]);
+        }
+    }
+
+    private void allocateGrid(Vec3 center, double reach) {
+        gridMinX = Mth.floor(center.x - reach);
+        gridMinY = Math.max(Mth.floor(center.y - reach), minY);
+        gridMinZ = Mth.floor(center.z - reach);
+        long sizeX = Mth.floor(center.x + reach) - gridMinX + 1L;
+        long sizeY = Math.max(0L, Math.min(Mth.floor(center.y + reach), maxY) - gridMinY + 1L);
+        long sizeZ = Mth.floor(center.z + reach) - gridMinZ + 1L;
+        long cells = sizeX * sizeY * sizeZ;
+        hasGrid = cells <= MAX_GRID_CELLS;
+        if (hasGrid) {
+            gridSizeY = (int) sizeY;
+            gridSizeZ = (int) sizeZ;
+            if (grid.length < cells) {
+                grid = new int[(int) cells];
+            } else {
+                Arrays.fill(grid, 0, (int) cells, 0);
+            }
+        }
+    }
+
+    /**
+     * The captured section at the given section coordinates, or null when it lies outside the snapshot.
+     */
+    LevelChunkSection section(int sectionX, int sectionY, int sectionZ) {
+        int x = sectionX - minSectionX;
+        int y = sectionY - minSectionY;
+        int z = sectionZ - minSectionZ;
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) {
+            return null;
+        }
+        return sections[(x * sizeY + y) * sizeZ + z];
+    }
+
+    /**
+     * Same check as Level.isInWorldBounds, without the BlockPos.
+     */
+    boolean isInWorldBounds(int x, int y, int z) {
+        return y >= minY && y <= maxY
+                && x >= -WORLD_BORDER && z >= -WORLD_BORDER && x < WORLD_BORDER && z < WORLD_BORDER;
+    }
+
+    /**
+     * The resistance vanilla's ExplosionDamageCalculator reports for the block at the given
+     * position, or {@link #NO_RESISTANCE}. The position has to pass {@link #isInWorldBounds}.
+     */
+    float resistance(int x, int y, int z) {
+        int sectionIndex = ((SectionPos.blockToSectionCoord(x) - minSectionX) * sizeY
+                + SectionPos.blockToSectionCoord(y) - minSectionY) * sizeZ
+                + SectionPos.blockToSectionCoord(z) - minSectionZ;
+
+        int[] cache;
+        int index;
+        if (shared) {
+            cache = sectionCaches[sectionIndex];
+            index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        } else {
+            cache = hasGrid ? grid : null;
+            index = ((x - gridMinX) * gridSizeY + y - gridMinY) * gridSizeZ + z - gridMinZ;
+        }
+        if (cache == null) {
+            return lookup(sections[sectionIndex], x, y, z);
+        }
+
+        int cached = cache[index];
+        if (cached != 0) {
+            return Float.intBitsToFloat(~cached);
+        }
+
+        float resistance = lookup(sections[sectionIndex], x, y, z);
+        cache[index] = ~Float.floatToRawIntBits(resistance);
+        return resistance;
+    }
+
+    private static float lookup(LevelChunkSection section, int x, int y, int z) {
+        if (section.hasOnlyAir()) {
+            return NO_RESISTANCE;
+        }
+
+        BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+        FluidState fluid = state.getFluidState();
+        if (state.isAir() && fluid.isEmpty()) {
+            return NO_RESISTANCE;
+        }
+        return Math.max(state.getBlock().getExplosionResistance(), fluid.getExplosionResistance());
+    }
+}
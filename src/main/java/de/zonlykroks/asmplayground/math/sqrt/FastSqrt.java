@@ -3,10 +3,18 @@ package de.zonlykroks.asmplayground.math.sqrt;
 import de.zonlykroks.asmplayground.impl.ModConfig;
 
 /**
- * Fast square root implementation using a lookup table (LUT) for values in the range [0, 256].
- * For values outside this range, it falls back to the standard Math.sqrt() method.
+ * Fast square root implementations.
  * <p>
- * This implementation uses linear interpolation between the LUT values for better accuracy.
+ * {@link #sqrt(double)} (LUT) interpolates a uniform table over [sqrtMinLutValue, sqrtMaxLutValue] and falls back
+ * to Math.sqrt() outside of it. With the default step that table is about 2 MB, so it is only built once the LUT
+ * mode is actually used.
+ * </p>
+ * <p>
+ * {@link #logSqrt(double)} (LOG_LUT) splits x into mantissa and exponent instead: the table only has to cover one
+ * even/odd exponent pair, [1, 4), and the exponent is halved with bit operations. 16 KB, 8 more for the float
+ * copy, cover the whole normal double range at a relative error below 3e-8 (1.4e-7 for floats). That beats the
+ * uniform table below x = 1, but with the default step the uniform table is more accurate above it, so LUT stays
+ * the default.
  * </p>
  */
 public class FastSqrt {
@@ -15,12 +23,44 @@ public class FastSqrt {
     private static final double MAX_VALUE = ModConfig.INSTANCE.sqrtMaxLutValue;
     private static final double STEP_SIZE = ModConfig.INSTANCE.sqrtLutStepSize;
     private static final int LUT_SIZE = ModConfig.INSTANCE.sqrtLutSize;
-    private static final double[] sqrtLUT = new double[LUT_SIZE];
+
+    private static final float MIN_VALUE_F = (float) MIN_VALUE;
+    private static final float MAX_VALUE_F = (float) MAX_VALUE;
+    private static final float INV_STEP_SIZE_F = (float) (1.0 / STEP_SIZE);
+
+    // Holder idiom, the uniform table is only allocated on the first LUT call
+    private static final class UniformTable {
+        private static final double[] sqrtLUT = new double[LUT_SIZE];
+
+        static {
+            for (int i = 0; i < LUT_SIZE; i++) {
+                double value = MIN_VALUE + i * STEP_SIZE;
+                sqrtLUT[i] = Math.sqrt(value);
+            }
+        }
+    }
+
+    // Log-spaced table: 2^LOG_BITS segments per exponent, entries k <= 2^LOG_BITS hold sqrt(1 + k / 2^LOG_BITS)
+    // for even exponents, the rest sqrt(2 * (1 + j / 2^LOG_BITS)) for odd ones. One extra entry closes the last segment
+    private static final int LOG_BITS = 10;
+    private static final int LOG_SEGMENTS = 1 << LOG_BITS;
+    private static final double[] logLUT = new double[2 * LOG_SEGMENTS + 1];
+    private static final float[] logLUTF = new float[2 * LOG_SEGMENTS + 1];
+
+    private static final int FRACTION_BITS = 52 - LOG_BITS;
+    private static final long FRACTION_MASK = (1L << FRACTION_BITS) - 1;
+    private static final double FRACTION_SCALE = 1.0 / (1L << FRACTION_BITS);
+    private static final int FRACTION_BITS_F = 23 - LOG_BITS;
+    private static final int FRACTION_MASK_F = (1 << FRACTION_BITS_F) - 1;
+    private static final float FRACTION_SCALE_F = 1.0f / (1 << FRACTION_BITS_F);
 
     static {
-        for (int i = 0; i < LUT_SIZE; i++) {
-            double value = MIN_VALUE + i * STEP_SIZE;
-            sqrtLUT[i] = Math.sqrt(value);
+        for (int k = 0; k <= 2 * LOG_SEGMENTS; k++) {
+            double mantissa = k <= LOG_SEGMENTS
+                    ? 1.0 + (double) k / LOG_SEGMENTS
+                    : 2.0 * (1.0 + (double) (k - LOG_SEGMENTS) / LOG_SEGMENTS);
+            logLUT[k] = Math.sqrt(mantissa);
+            logLUTF[k] = (float) logLUT[k];
         }
     }
 
@@ -28,6 +68,7 @@ public class FastSqrt {
         if (x < MIN_VALUE || x > MAX_VALUE) {
             return Math.sqrt(x);
         }
+        double[] sqrtLUT = UniformTable.sqrtLUT;
         int index = (int) ((x - MIN_VALUE) / STEP_SIZE);
         double base = MIN_VALUE + index * STEP_SIZE;
         if (x == base) {
@@ -38,6 +79,30 @@ public class FastSqrt {
         return prev + (x - base) * (next - prev) / STEP_SIZE;
     }
 
+    /**
+     * Log-spaced table sqrt, no division and no range limit.
+     * Zero, negative, subnormal, infinite and NaN inputs take Math.sqrt() so their special cases stay exact.
+     */
+    public static double logSqrt(double x) {
+        long bits = Double.doubleToRawLongBits(x);
+        // Negative values have the sign bit set and compare below every normal number
+        if (bits < 0x0010000000000000L || bits >= 0x7FF0000000000000L) {
+            return Math.sqrt(x);
+        }
+
+        int exponent = (int) (bits >>> 52) - 1023;
+        // Odd exponents move one factor of two into the mantissa, the table covers [1, 4)
+        int odd = exponent & 1;
+        long mantissa = bits & 0x000FFFFFFFFFFFFFL;
+        int index = (odd << LOG_BITS) | (int) (mantissa >>> FRACTION_BITS);
+        double t = (mantissa & FRACTION_MASK) * FRACTION_SCALE;
+
+        double prev = logLUT[index];
+        double root = prev + t * (logLUT[index + 1] - prev);
+        // 2^((exponent - odd) / 2), built straight from the exponent bits
+        return root * Double.longBitsToDouble((long) (((exponent - odd) >> 1) + 1023) << 52);
+    }
+
     public static double inversedInvSqrt(double x) {
         return 1.0 / fastInvSqrt(x);
     }
@@ -56,4 +121,58 @@ public class FastSqrt {
         y = y * (1.5 - 0.5 * x * y * y);
         return y;
     }
+
+    /**
+     * Float variant of {@link #sqrt(double)}, interpolating the same table in float.
+     */
+    public static float sqrt(float x) {
+        if (x < MIN_VALUE_F || x > MAX_VALUE_F) {
+            return (float) Math.sqrt(x);
+        }
+        float idx = (x - MIN_VALUE_F) * INV_STEP_SIZE_F;
+        // Float rounding may land idx on the last entry, keep a neighbour to interpolate with
+        int index = Math.min((int) idx, LUT_SIZE - 2);
+        double[] sqrtLUT = UniformTable.sqrtLUT;
+        float prev = (float) sqrtLUT[index];
+        float next = (float) sqrtLUT[index + 1];
+        return prev + (idx - index) * (next - prev);
+    }
+
+    /**
+     * Float variant of {@link #logSqrt(double)}
+     */
+    public static float logSqrt(float x) {
+        int bits = Float.floatToRawIntBits(x);
+        if (bits < 0x00800000 || bits >= 0x7F800000) {
+            return (float) Math.sqrt(x);
+        }
+
+        int exponent = (bits >>> 23) - 127;
+        int odd = exponent & 1;
+        int mantissa = bits & 0x007FFFFF;
+        int index = (odd << LOG_BITS) | (mantissa >>> FRACTION_BITS_F);
+        float t = (mantissa & FRACTION_MASK_F) * FRACTION_SCALE_F;
+
+        float prev = logLUTF[index];
+        float root = prev + t * (logLUTF[index + 1] - prev);
+        return root * Float.intBitsToFloat((((exponent - odd) >> 1) + 127) << 23);
+    }
+
+    public static float inversedInvSqrt(float x) {
+        return 1.0f / fastInvSqrt(x);
+    }
+
+    /**
+     * Classic float 1/√x bit trick with a single Newton–Raphson step.
+     *
+     * @param x the input value (must be positive)
+     * @return approximate 1.0f / Math.sqrt(x)
+     */
+    public static float fastInvSqrt(float x) {
+        int bits = Float.floatToRawIntBits(x);
+        bits = 0x5f3759df - (bits >> 1);
+        float y = Float.intBitsToFloat(bits);
+        y = y * (1.5f - 0.5f * x * y * y);
+        return y;
+    }
 }
@@ -14,8 +14,14 @@ public class PiecewiseSinCosTanImplementation {
      * Fast piecewise sine approximation (double input).
      */
     public static double fastPiecewisesin(double x) {
+        return fastPiecewisesin((float) x);
+    }
+
+    /**
+     * Fast piecewise sine approximation (float input).
+     */
+    public static float fastPiecewisesin(float xf) {
         // range-reduce into [-PI, PI]
-        float xf = (float) x;
         int n = (int) (xf * RECIP_TWO_PI + (xf >= 0 ? 0.5f : -0.5f));
         float xNorm = xf - n * TWO_PI;
 
@@ -79,6 +85,13 @@ public class PiecewiseSinCosTanImplementation {
         return fastPiecewisesin(x + HALF_PI_D);
     }
 
+    /**
+     * Fast piecewise cosine approximation (float input).
+     */
+    public static float fastPiecewisecos(float x) {
+        return fastPiecewisesin(x + HALF_PI);
+    }
+
     /**
      * Fast piecewise tangent approximation (double input).
      */
@@ -87,4 +100,11 @@ public class PiecewiseSinCosTanImplementation {
         double c = fastPiecewisecos(x);
         return s / c;
     }
+
+    /**
+     * Fast piecewise tangent approximation (float input).
+     */
+    public static float fastPiecewiseTan(float x) {
+        return fastPiecewisesin(x) / fastPiecewisecos(x);
+    }
 }
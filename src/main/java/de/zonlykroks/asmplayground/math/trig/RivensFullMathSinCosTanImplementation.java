@@ -1,5 +1,7 @@
 package de.zonlykroks.asmplayground.math.trig;
 
+import de.zonlykroks.asmplayground.math.SinCos;
+
 @SuppressWarnings("unused")
 public class RivensFullMathSinCosTanImplementation {
 
@@ -35,4 +37,28 @@ public class RivensFullMathSinCosTanImplementation {
     public static double tan(double rad) {
         return sin(rad) / cos(rad);
     }
+
+    // Same table entries as sin and cos, the cos index has to be computed from the shifted angle like cos()
+    // does, (int) truncates toward zero so index + a quarter turn differs for angles in (-pi/2, 0)
+    public static void sincos(double rad, double[] out) {
+        out[0] = BF_sinFull[(int) (rad * BF_radToIndex) & BF_SIN_MASK];
+        out[1] = BF_sinFull[(int) ((rad + BF_SIN_TO_COS) * BF_radToIndex) & BF_SIN_MASK];
+    }
+
+    public static long sincos(float rad) {
+        return SinCos.pack(BF_sinFull[(int) (rad * BF_radToIndex) & BF_SIN_MASK],
+                BF_sinFull[(int) ((rad + BF_SIN_TO_COS) * BF_radToIndex) & BF_SIN_MASK]);
+    }
+
+    public static float sin(float rad) {
+        return BF_sinFull[(int)(rad * BF_radToIndex) & BF_SIN_MASK];
+    }
+
+    public static float cos(float rad) {
+        return sin(rad + BF_SIN_TO_COS);
+    }
+
+    public static float tan(float rad) {
+        return sin(rad) / cos(rad);
+    }
 }
@@ -1,11 +1,18 @@
 package de.zonlykroks.asmplayground.math.trig;
 
+import de.zonlykroks.asmplayground.math.SinCos;
+
 @SuppressWarnings("unused")
 public class TaylorSinCosTanImplementation {
     private static final double TWO_PI    = 2 * Math.PI;
     private static final double INV_TWO_PI = 1.0 / TWO_PI;
     private static final double HALF_PI   = Math.PI / 2;
 
+    private static final float PI_F         = (float) Math.PI;
+    private static final float TWO_PI_F     = (float) TWO_PI;
+    private static final float INV_TWO_PI_F = (float) INV_TWO_PI;
+    private static final float HALF_PI_F    = (float) HALF_PI;
+
     /**
      * Reduce angle to the range [-π, π].
      */
@@ -121,4 +128,101 @@ public class TaylorSinCosTanImplementation {
     public static double taylortan(double rad) {
         return taylorsin(rad) / taylorcos(rad);
     }
+
+    /**
+     * sin(x) and cos(x) sharing one argument reduction, written to out[0] and out[1].
+     */
+    public static void taylorsincos(double rad, double[] out) {
+        double x = normalize(rad);
+
+        double s = x;
+        if (s > HALF_PI) {
+            s = Math.PI - s;
+        } else if (s < -HALF_PI) {
+            s = -Math.PI - s;
+        }
+
+        double c = Math.abs(x);
+        boolean negate = c > HALF_PI;
+        if (negate) {
+            c = Math.PI - c;
+        }
+
+        out[0] = sinCore(s);
+        out[1] = negate ? -cosCore(c) : cosCore(c);
+    }
+
+    // Float variants, the series is cut off where the next term drops below float precision on [-π/2, π/2]
+
+    private static float normalize(float x) {
+        x = x - TWO_PI_F * (float) Math.floor(x * INV_TWO_PI_F);
+        if (x > PI_F)       x -= TWO_PI_F;
+        else if (x <= -PI_F) x += TWO_PI_F;
+        return x;
+    }
+
+    /**
+     * Taylor series for sin(x) up to the x^13 term. Assumes |x| ≤ π/2.
+     */
+    private static float sinCore(float x) {
+        float x2 = x * x;
+        return x * (1f - x2 * (1f / 6f - x2 * (1f / 120f - x2 * (1f / 5040f
+                - x2 * (1f / 362880f - x2 * (1f / 39916800f - x2 * (1f / 6227020800f)))))));
+    }
+
+    /**
+     * Taylor series for cos(x) up to the x^12 term. Assumes |x| ≤ π/2.
+     */
+    private static float cosCore(float x) {
+        float x2 = x * x;
+        return 1f - x2 * (0.5f - x2 * (1f / 24f - x2 * (1f / 720f
+                - x2 * (1f / 40320f - x2 * (1f / 3628800f - x2 * (1f / 479001600f))))));
+    }
+
+    public static float taylorsin(float rad) {
+        float x = normalize(rad);
+        if (x > HALF_PI_F) {
+            x = PI_F - x;
+        } else if (x < -HALF_PI_F) {
+            x = -PI_F - x;
+        }
+        return sinCore(x);
+    }
+
+    public static float taylorcos(float rad) {
+        float x = Math.abs(normalize(rad));
+        boolean negate = false;
+        if (x > HALF_PI_F) {
+            x = PI_F - x;
+            negate = true;
+        }
+        float c = cosCore(x);
+        return negate ? -c : c;
+    }
+
+    public static float taylortan(float rad) {
+        return taylorsin(rad) / taylorcos(rad);
+    }
+
+    /**
+     * Float sin(x) and cos(x) sharing one argument reduction, packed via {@link SinCos#pack}.
+     */
+    public static long taylorsincos(float rad) {
+        float x = normalize(rad);
+
+        float s = x;
+        if (s > HALF_PI_F) {
+            s = PI_F - s;
+        } else if (s < -HALF_PI_F) {
+            s = -PI_F - s;
+        }
+
+        float c = Math.abs(x);
+        boolean negate = c > HALF_PI_F;
+        if (negate) {
+            c = PI_F - c;
+        }
+
+        return SinCos.pack(sinCore(s), negate ? -cosCore(c) : cosCore(c));
+    }
 }
@@ -11,10 +11,22 @@ public class FastAsinImplementation {
         }
     }
 
+    private static final float HALF_PI_F = (float) (Math.PI / 2);
+    private static final float[] asinLUTF = new float[LUT_RESOLUTION + 1];
+    static {
+        for (int i = 0; i <= LUT_RESOLUTION; i++) {
+            asinLUTF[i] = (float) asinLUT[i];
+        }
+    }
+
     private static double lerp(double a, double b, double t) {
         return a + t * (b - a);
     }
 
+    private static float lerp(float a, float b, float t) {
+        return a + t * (b - a);
+    }
+
     /**
      * Minimax 5th-degree polynomial approximation for asin(x)
      * Domain: [-1, 1]
@@ -49,4 +61,33 @@ public class FastAsinImplementation {
         double t = idx - i;
         return lerp(asinLUT[i], asinLUT[i + 1], t);
     }
+
+    /**
+     * Float variant of {@link #fastAsinPolynomial(double)}
+     */
+    public static float fastAsinPolynomial(float x) {
+        if (x < -1.0f || x > 1.0f) return Float.NaN;
+        if (x == 1.0f) return HALF_PI_F;
+        if (x == -1.0f) return -HALF_PI_F;
+
+        boolean negate = x < 0;
+        x = Math.abs(x);
+
+        float root = (float) Math.sqrt(1.0f - x);
+        float result = root * (1.5707288f + x * (-0.2121144f + x * (0.0742610f + x * -0.0187293f)));
+        return negate ? -result : result;
+    }
+
+    /**
+     * Float variant of {@link #fastAsinLUT(double)}
+     */
+    public static float fastAsinLUT(float x) {
+        if (x < -1.0f || x > 1.0f) return Float.NaN;
+        float idx = (x + 1.0f) * 0.5f * LUT_RESOLUTION;
+        // idx is never negative here, so the cast floors
+        int i = (int) idx;
+        if (i >= LUT_RESOLUTION) i = LUT_RESOLUTION - 1;
+        float t = idx - i;
+        return lerp(asinLUTF[i], asinLUTF[i + 1], t);
+    }
 }
@@ -1,5 +1,7 @@
 package de.zonlykroks.asmplayground.math.trig.fast;
 
+import de.zonlykroks.asmplayground.math.SinCos;
+
 @SuppressWarnings("unused")
 public class FastTrigImplementation {
     private static final double TWO_PI = Math.PI * 2;
@@ -22,6 +24,19 @@ public class FastTrigImplementation {
         }
     }
 
+    // Float copies of both tables for the float kernels
+    private static final float TWO_PI_F = (float) TWO_PI;
+    private static final float PI_F = (float) Math.PI;
+    private static final float HALF_PI_F = (float) (Math.PI / 2);
+    private static final float[] sinLUTF = new float[LUT_RESOLUTION + 1];
+    private static final float[] atanLUTF = new float[LUT_RESOLUTION + 1];
+    static {
+        for (int i = 0; i <= LUT_RESOLUTION; i++) {
+            sinLUTF[i] = (float) sinLUT[i];
+            atanLUTF[i] = (float) atanLUT[i];
+        }
+    }
+
     private static double normalizeRadians(double x) {
         x %= TWO_PI;
         if (x < 0) x += TWO_PI;
@@ -32,6 +47,16 @@ public class FastTrigImplementation {
         return a + t * (b - a);
     }
 
+    private static float normalizeRadians(float x) {
+        x %= TWO_PI_F;
+        if (x < 0) x += TWO_PI_F;
+        return x;
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + t * (b - a);
+    }
+
     public static double fastSinPolynomial(double x) {
         // Taylor series for sin(x) around 0: x - x^3/6 + x^5/120 - x^7/5040
         x = normalizeRadians(x);
@@ -49,6 +74,21 @@ public class FastTrigImplementation {
         return lerp(sinLUT[i], sinLUT[i + 1], t);
     }
 
+    /**
+     * LUT sin(x) and cos(x) in one call. Each index is computed exactly as in fastSinLUT / fastCosLUT,
+     * sharing one normalization would round differently and change the fused results.
+     */
+    public static void fastSinCosLUT(double x, double[] out) {
+        out[0] = lutAt(normalizeRadians(x) / TWO_PI * LUT_RESOLUTION);
+        out[1] = lutAt(normalizeRadians(x + Math.PI / 2) / TWO_PI * LUT_RESOLUTION);
+    }
+
+    private static double lutAt(double idx) {
+        int i = (int) idx;
+        if (i >= LUT_RESOLUTION) return sinLUT[LUT_RESOLUTION];
+        return lerp(sinLUT[i], sinLUT[i + 1], idx - i);
+    }
+
     public static double fastCosPolynomial(double x) {
         // cos(x) = sin(x + π/2)
         return fastSinPolynomial(x + Math.PI / 2);
@@ -105,4 +145,86 @@ public class FastTrigImplementation {
             return sign * (Math.PI / 2 - fastAtanLUT(1.0 / x));
         }
     }
+
+    // Float variants of the kernels above, same approximations evaluated in float
+
+    public static float fastSinPolynomial(float x) {
+        x = normalizeRadians(x);
+        if (x > PI_F) x -= TWO_PI_F;
+        float x2 = x * x;
+        return x * (1f - x2 * (1f / 6f - x2 * (1f / 120f - x2 * (1f / 5040f))));
+    }
+
+    public static float fastSinLUT(float x) {
+        x = normalizeRadians(x);
+        float idx = x / TWO_PI_F * LUT_RESOLUTION;
+        // x is normalized to [0, 2π), so the cast floors
+        int i = (int) idx;
+        if (i >= LUT_RESOLUTION) return sinLUTF[LUT_RESOLUTION];
+        float t = idx - i;
+        return lerp(sinLUTF[i], sinLUTF[i + 1], t);
+    }
+
+    public static long fastSinCosLUT(float x) {
+        return SinCos.pack(lutAt(normalizeRadians(x) / TWO_PI_F * LUT_RESOLUTION),
+                lutAt(normalizeRadians(x + HALF_PI_F) / TWO_PI_F * LUT_RESOLUTION));
+    }
+
+    private static float lutAt(float idx) {
+        int i = (int) idx;
+        if (i >= LUT_RESOLUTION) return sinLUTF[LUT_RESOLUTION];
+        return lerp(sinLUTF[i], sinLUTF[i + 1], idx - i);
+    }
+
+    public static float fastCosPolynomial(float x) {
+        return fastSinPolynomial(x + HALF_PI_F);
+    }
+
+    public static float fastCosLUT(float x) {
+        return fastSinLUT(x + HALF_PI_F);
+    }
+
+    public static float fastTanPolynomial(float x) {
+        x = normalizeRadians(x);
+        if (x > HALF_PI_F) x -= PI_F;
+        if (x < -HALF_PI_F) x += PI_F;
+        float x2 = x * x;
+        return x * (1f + x2 * (1f / 3f + x2 * (2f / 15f)));
+    }
+
+    public static float fastTanLUT(float x) {
+        return fastSinLUT(x) / fastCosLUT(x);
+    }
+
+    public static float fastAcosPolynomial(float x) {
+        return HALF_PI_F - FastAsinImplementation.fastAsinPolynomial(x);
+    }
+
+    public static float fastAcosLUT(float x) {
+        return HALF_PI_F - FastAsinImplementation.fastAsinLUT(x);
+    }
+
+    public static float fastAtanPolynomial(float x) {
+        float sign = Math.signum(x);
+        x = Math.abs(x);
+        if (x > 1.0f) {
+            return sign * (HALF_PI_F - fastAtanPolynomial(1.0f / x));
+        }
+        float x2 = x * x;
+        return sign * x * (1f - x2 * (1f / 3f - x2 * (1f / 5f - x2 * (1f / 7f))));
+    }
+
+    public static float fastAtanLUT(float x) {
+        float sign = Math.signum(x);
+        x = Math.abs(x);
+        if (x <= 1.0f) {
+            float idx = x * LUT_RESOLUTION;
+            int i = (int) idx;
+            if (i >= LUT_RESOLUTION) return sign * atanLUTF[LUT_RESOLUTION];
+            float t = idx - i;
+            return sign * lerp(atanLUTF[i], atanLUTF[i + 1], t);
+        } else {
+            return sign * (HALF_PI_F - fastAtanLUT(1.0f / x));
+        }
+    }
 }
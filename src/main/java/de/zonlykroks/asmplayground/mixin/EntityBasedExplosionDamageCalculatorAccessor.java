@@ -0,0 +1,14 @@
+package de.zonlykroks.asmplayground.mixin;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.EntityBasedExplosionDamageCalculator;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(EntityBasedExplosionDamageCalculator.class)
+public interface EntityBasedExplosionDamageCalculatorAccessor {
+
+    // The parallel explosion path needs to know which entity resolves the resistance
+    @Accessor("source")
+    Entity asmplayground$getSource();
+}
@@ -0,0 +1,36 @@
+package de.zonlykroks.asmplayground.mixin;
+
+import de.zonlykroks.asmplayground.math.explosion.ResistanceCacheHolder;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LevelChunkSection.class)
+public class LevelChunkSectionMixin implements ResistanceCacheHolder {
+
+    @Unique
+    private int[] asmplayground$resistances;
+
+    @Override
+    public int[] asmplayground$getResistances() {
+        return asmplayground$resistances;
+    }
+
+    @Override
+    public void asmplayground$setResistances(int[] resistances) {
+        this.asmplayground$resistances = resistances;
+    }
+
+    // Every block change goes through here, forget the resistance explosions resolved for the old block
+    @Inject(method = "setBlockState(IIILnet/minecraft/world/level/block/state/BlockState;Z)Lnet/minecraft/world/level/block/state/BlockState;", at = @At("HEAD"))
+    private void asmplayground$invalidateResistance(int x, int y, int z, BlockState state, boolean useLocks, CallbackInfoReturnable<BlockState> cir) {
+        int[] resistances = asmplayground$resistances;
+        if (resistances != null) {
+            resistances[(y << 8) | (z << 4) | x] = 0;
+        }
+    }
+}
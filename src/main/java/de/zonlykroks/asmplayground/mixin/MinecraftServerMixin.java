@@ -0,0 +1,29 @@
+package de.zonlykroks.asmplayground.mixin;
+
+import de.zonlykroks.asmplayground.benchmark.BackgroundBenchmark;
+import de.zonlykroks.asmplayground.math.explosion.ExplosionResistanceCache;
+import de.zonlykroks.asmplayground.visitor.timing.TransformMetrics;
+import net.minecraft.server.MinecraftServer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.function.BooleanSupplier;
+
+@Mixin(MinecraftServer.class)
+public class MinecraftServerMixin {
+
+    // Levels are loaded and the server is about to tick, safe to start background work
+    @Inject(method = "loadLevel", at = @At("TAIL"))
+    private void asmplayground$onServerStarted(CallbackInfo ci) {
+        BackgroundBenchmark.onServerStarted();
+        TransformMetrics.logSummary();
+    }
+
+    // All levels ticked, release the explosion resistances shared during this tick
+    @Inject(method = "tickServer", at = @At("TAIL"))
+    private void asmplayground$onTickEnd(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        ExplosionResistanceCache.endTick();
+    }
+}
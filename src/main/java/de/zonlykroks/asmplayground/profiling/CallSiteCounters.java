@@ -0,0 +1,124 @@
+package de.zonlykroks.asmplayground.profiling;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counts of redirected call sites, for finding the hot ones on a live server. With
+ * {@link ModConfig#countCallSites} on, the RedirectTransformer gives every site it rewrites an id and
+ * calls {@link #hit(int)} with it right before the replacement. The sin/cos fusion and the floor casts
+ * only rewrite calls the RedirectTransformer left behind, so their sites keep the hit and the label of the
+ * sin, cos or Math.floor call they started from.
+ * <p>
+ * A daemon thread logs the top sites of the last interval. Ranking reuses preallocated arrays, the
+ * only allocations are the lines it prints.
+ * </p>
+ */
+public final class CallSiteCounters {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+
+    // Ids fit a SIPUSH, sites past this are rewritten without a counter
+    public static final int MAX_SITES = Short.MAX_VALUE + 1;
+
+    // Filled before the class holding the site is defined, so its first hit already sees the counter
+    private static final LongAdder[] COUNTERS = new LongAdder[MAX_SITES];
+    private static final String[] SITES = new String[MAX_SITES];
+    private static int registered;
+
+    private CallSiteCounters() {
+    }
+
+    /**
+     * @return the id of the new site, or -1 if no more sites can be counted
+     */
+    public static synchronized int register(String target, String owner, String method, int line) {
+        if (registered == MAX_SITES) {
+            return -1;
+        }
+        if (registered == 0) {
+            Dumper.start();
+        }
+
+        int id = registered++;
+        COUNTERS[id] = new LongAdder();
+        SITES[id] = owner + "." + method + (line > 0 ? ":" + line : "") + " -> " + target;
+        return id;
+    }
+
+    public static void hit(int site) {
+        COUNTERS[site].increment();
+    }
+
+    private static synchronized int registered() {
+        return registered;
+    }
+
+    private static final class Dumper implements Runnable {
+        private final int topN = Math.max(1, ModConfig.INSTANCE.callSiteDumpTopN);
+        private final long intervalMillis = Math.max(1, ModConfig.INSTANCE.callSiteDumpIntervalSeconds) * 1000L;
+
+        private final long[] lastTotals = new long[MAX_SITES];
+        private final int[] topSites = new int[topN];
+        private final long[] topHits = new long[topN];
+        private final StringBuilder report = new StringBuilder(256);
+
+        static void start() {
+            Thread thread = new Thread(new Dumper(), "ASMPlayground Call Site Counters");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                dump();
+            }
+        }
+
+        private void dump() {
+            int sites = registered();
+            int found = 0;
+            long intervalTotal = 0;
+
+            for (int site = 0; site < sites; site++) {
+                long total = COUNTERS[site].sum();
+                long hits = total - lastTotals[site];
+                lastTotals[site] = total;
+                intervalTotal += hits;
+                if (hits == 0 || (found == topN && hits <= topHits[found - 1])) {
+                    continue;
+                }
+
+                // Insertion into the sorted top list, the last entry falls off when it is full
+                int slot = found < topN ? found++ : topN - 1;
+                while (slot > 0 && topHits[slot - 1] < hits) {
+                    topHits[slot] = topHits[slot - 1];
+                    topSites[slot] = topSites[slot - 1];
+                    slot--;
+                }
+                topHits[slot] = hits;
+                topSites[slot] = site;
+            }
+            if (found == 0) {
+                return;
+            }
+
+            report.setLength(0);
+            report.append("Hottest redirected call sites of the last ").append(intervalMillis / 1000).append(" s, ")
+                    .append(intervalTotal).append(" calls over ").append(sites).append(" sites:");
+            for (int i = 0; i < found; i++) {
+                report.append("\n  ").append(topHits[i]).append("  ").append(SITES[topSites[i]]);
+            }
+            LOGGER.info(report.toString());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package de.zonlykroks.asmplayground.profiling;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow evaluation of the fast kernels on live inputs. With {@link ModConfig#sampleApproximationError}
+ * on, FastMath hands roughly one in {@link ModConfig#errorSampleRate} results to {@link #check}, which
+ * also computes the {@link SampledFunction reference} result and records the absolute and ULP error.
+ * <p>
+ * {@link #ENABLED} is fixed at startup, so with sampling off the JIT folds the check in FastMath away
+ * entirely. With it on, an unsampled call costs one ThreadLocalRandom draw. Histograms are atomic
+ * counters, only a sample that beats the worst ones kept so far takes a lock.
+ * </p>
+ */
+public final class ErrorSampler {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+
+    public static final boolean ENABLED = ModConfig.INSTANCE.sampleApproximationError;
+
+    // The rate rounded up to a power of two, a sample is taken when the masked random bits are all zero
+    private static final int MASK = Integer.highestOneBit(Math.max(1, ModConfig.INSTANCE.errorSampleRate) * 2 - 1) - 1;
+
+    private static final Stats[] STATS = new Stats[SampledFunction.values().length];
+
+    static {
+        for (SampledFunction function : SampledFunction.values()) {
+            STATS[function.ordinal()] = new Stats(function);
+        }
+        if (ENABLED) {
+            Reporter.start();
+        }
+    }
+
+    private ErrorSampler() {
+    }
+
+    /**
+     * @return {@code result}, after comparing it with the exact value if this call is sampled
+     */
+    public static double check(SampledFunction function, double x, double result) {
+        if ((ThreadLocalRandom.current().nextInt() & MASK) == 0) {
+            double exact = function.exact(x);
+            STATS[function.ordinal()].record(x, result, exact, ulpError(result, exact, Math.ulp(exact)));
+        }
+        return result;
+    }
+
+    /**
+     * Float variant, the ULP error is measured in float precision against the double reference.
+     */
+    public static float check(SampledFunction function, float x, float result) {
+        if ((ThreadLocalRandom.current().nextInt() & MASK) == 0) {
+            double exact = function.exact(x);
+            STATS[function.ordinal()].record(x, result, exact, ulpError(result, exact, Math.ulp((float) exact)));
+        }
+        return result;
+    }
+
+    // NaN if exactly one side is not finite or both are but differ, those are counted apart
+    private static double ulpError(double result, double exact, double ulp) {
+        if (result == exact || (Double.isNaN(result) && Double.isNaN(exact))) {
+            return 0.0;
+        }
+        if (!Double.isFinite(result) || !Double.isFinite(exact)) {
+            return Double.NaN;
+        }
+        return Math.abs(result - exact) / ulp;
+    }
+
+    private static final class Stats {
+        // 0: exact, 1: below one ULP, then [1, 2), [2, 4), ... ULPs, the last bucket takes everything above
+        private static final int ULP_BUCKETS = 40;
+        // 0: exact, 1: below 1e-15, then one decade each up to [0.1, 1), the last bucket is 1 and above
+        private static final int ABS_BUCKETS = 18;
+        private static final int WORST = 5;
+
+        private final SampledFunction function;
+        private final AtomicLongArray ulpHistogram = new AtomicLongArray(ULP_BUCKETS);
+        private final AtomicLongArray absHistogram = new AtomicLongArray(ABS_BUCKETS);
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder nonFinite = new LongAdder();
+        private final DoubleAdder absErrorSum = new DoubleAdder();
+
+        // Sorted worst first, the threshold is the smallest kept ULP error once the list is full
+        private final double[] worstUlp = new double[WORST];
+        private final double[] worstInput = new double[WORST];
+        private final double[] worstResult = new double[WORST];
+        private final double[] worstExact = new double[WORST];
+        private int worstCount;
+        private volatile double threshold;
+
+        private Stats(SampledFunction function) {
+            this.function = function;
+        }
+
+        void record(double x, double result, double exact, double ulp) {
+            samples.increment();
+            if (Double.isNaN(ulp)) {
+                nonFinite.increment();
+                return;
+            }
+
+            double abs = Math.abs(result - exact);
+            absErrorSum.add(abs);
+            ulpHistogram.incrementAndGet(ulpBucket(ulp));
+            absHistogram.incrementAndGet(absBucket(abs));
+            if (ulp > threshold) {
+                keepWorst(x, result, exact, ulp);
+            }
+        }
+
+        private static int ulpBucket(double ulp) {
+            if (ulp == 0.0) return 0;
+            if (ulp < 1.0) return 1;
+            return Math.min(2 + Math.getExponent(ulp), ULP_BUCKETS - 1);
+        }
+
+        private static int absBucket(double abs) {
+            if (abs == 0.0) return 0;
+            if (abs < 1.0E-15) return 1;
+            return Math.min(17 + (int) Math.floor(Math.log10(abs)), ABS_BUCKETS - 1);
+        }
+
+        private synchronized void keepWorst(double x, double result, double exact, double ulp) {
+            if (worstCount == WORST && ulp <= worstUlp[WORST - 1]) {
+                return;
+            }
+
+            int slot = worstCount < WORST ? worstCount++ : WORST - 1;
+            while (slot > 0 && worstUlp[slot - 1] < ulp) {
+                worstUlp[slot] = worstUlp[slot - 1];
+                worstInput[slot] = worstInput[slot - 1];
+                worstResult[slot] = worstResult[slot - 1];
+                worstExact[slot] = worstExact[slot - 1];
+                slot--;
+            }
+            worstUlp[slot] = ulp;
+            worstInput[slot] = x;
+            worstResult[slot] = result;
+            worstExact[slot] = exact;
+            if (worstCount == WORST) {
+                threshold = worstUlp[WORST - 1];
+            }
+        }
+
+        synchronized void report(StringBuilder out) {
+            long count = samples.sum();
+            if (count == 0) {
+                return;
+            }
+
+            long nonFiniteCount = nonFinite.sum();
+            long finite = count - nonFiniteCount;
+            out.append("\n  ").append(function.displayName()).append(": ").append(count).append(" samples");
+            if (nonFiniteCount > 0) {
+                out.append(", ").append(nonFiniteCount).append(" with NaN or infinity where the reference has none");
+            }
+            if (finite > 0) {
+                out.append(String.format(", mean abs error %.3e", absErrorSum.sum() / finite));
+            }
+
+            out.append("\n    ULP  ");
+            for (int i = 0; i < ULP_BUCKETS; i++) {
+                long n = ulpHistogram.get(i);
+                if (n == 0) continue;
+                String bucket = i == 0 ? "0" : i == 1 ? "<1" : i == ULP_BUCKETS - 1 ? ">=2^" + (i - 2) : "<2^" + (i - 1);
+                out.append(' ').append(bucket).append(':').append(n);
+            }
+
+            out.append("\n    abs  ");
+            for (int i = 0; i < ABS_BUCKETS; i++) {
+                long n = absHistogram.get(i);
+                if (n == 0) continue;
+                String bucket = i == 0 ? "0" : i == ABS_BUCKETS - 1 ? ">=1" : "<1e" + (i - 16);
+                out.append(' ').append(bucket).append(':').append(n);
+            }
+
+            for (int i = 0; i < worstCount; i++) {
+                out.append(String.format("%n    worst %s(%s) = %s, exact %s, %.1f ULP", function.displayName(),
+                        worstInput[i], worstResult[i], worstExact[i], worstUlp[i]));
+            }
+        }
+    }
+
+    private static final class Reporter implements Runnable {
+        private final long intervalMillis = Math.max(1, ModConfig.INSTANCE.errorSampleReportIntervalSeconds) * 1000L;
+        private final StringBuilder report = new StringBuilder(1024);
+
+        static void start() {
+            Thread thread = new Thread(new Reporter(), "ASMPlayground Error Sampler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            LOGGER.info("Sampling approximation error of about one in {} FastMath calls", MASK + 1);
+            while (true) {
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                report.setLength(0);
+                for (Stats stats : STATS) {
+                    stats.report(report);
+                }
+                if (!report.isEmpty()) {
+                    LOGGER.info("Approximation error since startup:" + report);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.zonlykroks.asmplayground.profiling;
+
+import org.apache.commons.math4.core.jdkmath.AccurateMath;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The FastMath functions {@link ErrorSampler} checks, each with the reference it is compared against.
+ * Trig uses AccurateMath, which stays within about half an ULP, sqrt is exact in Math already.
+ */
+public enum SampledFunction {
+    SIN("sin", AccurateMath::sin),
+    COS("cos", AccurateMath::cos),
+    TAN("tan", AccurateMath::tan),
+    ASIN("asin", AccurateMath::asin),
+    ACOS("acos", AccurateMath::acos),
+    ATAN("atan", AccurateMath::atan),
+    SQRT("sqrt", Math::sqrt),
+    INV_SQRT("invSqrt", x -> 1.0 / Math.sqrt(x));
+
+    private final String displayName;
+    private final DoubleUnaryOperator exact;
+
+    SampledFunction(String displayName, DoubleUnaryOperator exact) {
+        this.displayName = displayName;
+        this.exact = exact;
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    double exact(double x) {
+        return exact.applyAsDouble(x);
+    }
+}
@@ -14,6 +14,8 @@ import org.objectweb.asm.commons.AdviceAdapter;
 public class ExplosionReplaceTransformer extends ClassVisitor {
     private static final String SERVER_EXPLOSION_CLASS = "net/minecraft/world/level/ServerExplosion";
     private static final String EXPLOSION_HELPER_CLASS = "de/zonlykroks/asmplayground/math/explosion/ExplosionHelper";
+    private static final String EXPLOSION_WORKSPACE_CLASS = "de/zonlykroks/asmplayground/math/explosion/ExplosionWorkspace";
+    private static final String EXPOSURE_CLASS = "de/zonlykroks/asmplayground/math/explosion/ExplosionExposure";
 
     private boolean isTargetClass = false;
 
@@ -63,6 +65,51 @@ public class ExplosionReplaceTransformer extends ClassVisitor {
             };
         }
 
+        // Count the entities hurtEntities() damages and route its exposure raycasts through ExplosionExposure,
+        // both get the explosion passed along
+        if (ModConfig.INSTANCE.optimizeExplosion &&
+                isTargetClass &&
+                methodName.equals("hurtEntities") &&
+                descriptor.equals("()V")) {
+
+            final boolean redirectExposure = ModConfig.INSTANCE.optimizeExplosionExposure;
+            return new MethodVisitor(api, mv) {
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    // INVOKESTATIC net/minecraft/world/level/ServerExplosion.getSeenPercent (Lnet/minecraft/world/phys/Vec3;Lnet/minecraft/world/entity/Entity;)F
+                    if (redirectExposure && opcode == Opcodes.INVOKESTATIC && owner.equals(SERVER_EXPLOSION_CLASS) && name.equals("getSeenPercent")
+                            && descriptor.equals("(Lnet/minecraft/world/phys/Vec3;Lnet/minecraft/world/entity/Entity;)F")) {
+                        super.visitVarInsn(Opcodes.ALOAD, 0); // this
+                        super.visitMethodInsn(Opcodes.INVOKESTATIC,
+                                EXPOSURE_CLASS,
+                                "getSeenPercent",
+                                "(Lnet/minecraft/world/phys/Vec3;Lnet/minecraft/world/entity/Entity;Lnet/minecraft/world/level/ServerExplosion;)F",
+                                false);
+                        return;
+                    }
+
+                    // INVOKEVIRTUAL net/minecraft/world/entity/Entity.hurtServer (Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/damagesource/DamageSource;F)Z
+                    if (opcode == Opcodes.INVOKEVIRTUAL && owner.equals("net/minecraft/world/entity/Entity") && name.equals("hurtServer")
+                            && descriptor.equals("(Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/damagesource/DamageSource;F)Z")) {
+                        super.visitVarInsn(Opcodes.ALOAD, 0); // this
+                        super.visitMethodInsn(Opcodes.INVOKESTATIC,
+                                EXPOSURE_CLASS,
+                                "hurtServer",
+                                "(Lnet/minecraft/world/entity/Entity;Lnet/minecraft/server/level/ServerLevel;Lnet/minecraft/world/damagesource/DamageSource;FLnet/minecraft/world/level/ServerExplosion;)Z",
+                                false);
+                        return;
+                    }
+
+                    super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                }
+
+                @Override
+                public void visitMaxs(int maxStack, int maxLocals) {
+                    super.visitMaxs(maxStack + 1, maxLocals);
+                }
+            };
+        }
+
         // Only target the explode() method in ServerExplosion class
         if (ModConfig.INSTANCE.optimizeExplosion &&
                 isTargetClass &&
@@ -97,53 +144,18 @@ public class ExplosionReplaceTransformer extends ClassVisitor {
                             "(Lnet/minecraft/world/entity/Entity;Lnet/minecraft/core/Holder;Lnet/minecraft/world/phys/Vec3;)V",
                             false);
 
-                    int optimizedListVar = newLocal(org.objectweb.asm.Type.getType("Ljava/util/List;")); // List<BlockPos> optimizedList
+                    int workspaceVar = newLocal(org.objectweb.asm.Type.getObjectType(EXPLOSION_WORKSPACE_CLASS)); // ExplosionWorkspace workspace
 
                     // Call our optimized implementation
-                    // ExplosionHelper.calculateExplodedPositions(this, new BlockPos(int, int, int), this.radius, this.level, this.damageCalculator, this.level.random)
+                    // ExplosionHelper.calculateExplodedPositions(this, this.center, this.radius, this.level, this.damageCalculator, this.level.random)
 
                     // Load explosion (this)
                     visitVarInsn(Opcodes.ALOAD, 0);
 
-                    // Convert this.center (Vec3) → new BlockPos(int, int, int)
-                    // Create a new BlockPos instance using the constructor with integer coordinates
-                    visitTypeInsn(Opcodes.NEW, "net/minecraft/core/BlockPos");
-                    visitInsn(Opcodes.DUP);
-
-                    // Load the center Vec3
-                    visitVarInsn(Opcodes.ALOAD, 0);
-                    visitFieldInsn(Opcodes.GETFIELD, SERVER_EXPLOSION_CLASS, "center", "Lnet/minecraft/world/phys/Vec3;");
-
-                    // Get Vec3.x as double
-                    visitFieldInsn(Opcodes.GETFIELD, "net/minecraft/world/phys/Vec3", "x", "D");
-                    // Convert double to int
-                    visitInsn(Opcodes.D2I);
-
-                    // Load the center Vec3 again
+                    // Load the center Vec3, rays start at the exact center like vanilla
                     visitVarInsn(Opcodes.ALOAD, 0);
                     visitFieldInsn(Opcodes.GETFIELD, SERVER_EXPLOSION_CLASS, "center", "Lnet/minecraft/world/phys/Vec3;");
 
-                    // Get Vec3.y as double
-                    visitFieldInsn(Opcodes.GETFIELD, "net/minecraft/world/phys/Vec3", "y", "D");
-                    // Convert double to int
-                    visitInsn(Opcodes.D2I);
-
-                    // Load the center Vec3 again
-                    visitVarInsn(Opcodes.ALOAD, 0);
-                    visitFieldInsn(Opcodes.GETFIELD, SERVER_EXPLOSION_CLASS, "center", "Lnet/minecraft/world/phys/Vec3;");
-
-                    // Get Vec3.z as double
-                    visitFieldInsn(Opcodes.GETFIELD, "net/minecraft/world/phys/Vec3", "z", "D");
-                    // Convert double to int
-                    visitInsn(Opcodes.D2I);
-
-                    // Call the BlockPos constructor with int, int, int parameters
-                    visitMethodInsn(Opcodes.INVOKESPECIAL,
-                            "net/minecraft/core/BlockPos",
-                            "<init>",
-                            "(III)V",
-                            false);
-
                     // Push radius
                     visitVarInsn(Opcodes.ALOAD, 0);
                     visitFieldInsn(Opcodes.GETFIELD, SERVER_EXPLOSION_CLASS, "radius", "F");
@@ -166,19 +178,26 @@ public class ExplosionReplaceTransformer extends ClassVisitor {
                             EXPLOSION_HELPER_CLASS,
                             "calculateExplodedPositions",
                             "(Lnet/minecraft/world/level/Explosion;" +
-                                    "Lnet/minecraft/core/BlockPos;" +
+                                    "Lnet/minecraft/world/phys/Vec3;" +
                                     "F" +
                                     "Lnet/minecraft/world/level/Level;" +
                                     "Lnet/minecraft/world/level/ExplosionDamageCalculator;" +
                                     "Lnet/minecraft/util/RandomSource;" +
-                                    ")Lit/unimi/dsi/fastutil/objects/ObjectArrayList;",
+                                    ")L" + EXPLOSION_WORKSPACE_CLASS + ";",
                             false);
 
-                    // Store optimized result in local variable
-                    visitVarInsn(Opcodes.ASTORE, optimizedListVar);
+                    // Store the workspace holding the packed positions
+                    visitVarInsn(Opcodes.ASTORE, workspaceVar);
+
 
+                    // 3. this.hurtEntities(); timed for the explosion's JFR event
+                    visitVarInsn(Opcodes.ALOAD, workspaceVar);
+                    visitMethodInsn(Opcodes.INVOKESTATIC,
+                            EXPLOSION_WORKSPACE_CLASS,
+                            "beginEntityPhase",
+                            "(L" + EXPLOSION_WORKSPACE_CLASS + ";)V",
+                            false);
 
-                    // 3. this.hurtEntities();
                     visitVarInsn(Opcodes.ALOAD, 0); // this
                     visitMethodInsn(Opcodes.INVOKEVIRTUAL,
                             SERVER_EXPLOSION_CLASS,
@@ -186,6 +205,13 @@ public class ExplosionReplaceTransformer extends ClassVisitor {
                             "()V",
                             false);
 
+                    visitVarInsn(Opcodes.ALOAD, workspaceVar);
+                    visitMethodInsn(Opcodes.INVOKESTATIC,
+                            EXPLOSION_WORKSPACE_CLASS,
+                            "endEntityPhase",
+                            "(L" + EXPLOSION_WORKSPACE_CLASS + ";)V",
+                            false);
+
                     // 4. if (this.interactsWithBlocks()) {
                     visitVarInsn(Opcodes.ALOAD, 0); // this
                     visitMethodInsn(Opcodes.INVOKEVIRTUAL,
@@ -215,14 +241,16 @@ public class ExplosionReplaceTransformer extends ClassVisitor {
                             "(Ljava/lang/String;)V",
                             true);
 
-                    // Use the optimized list for actual explosion processing
-                    // this.interactWithBlocks(optimizedList);
+                    // Work on the packed positions directly
+                    // ExplosionHelper.interactWithBlocks(this, this.level, workspace);
                     visitVarInsn(Opcodes.ALOAD, 0); // this
-                    visitVarInsn(Opcodes.ALOAD, optimizedListVar); // optimized list
-                    visitMethodInsn(Opcodes.INVOKEVIRTUAL,
-                            SERVER_EXPLOSION_CLASS,
+                    visitVarInsn(Opcodes.ALOAD, 0); // this
+                    visitFieldInsn(Opcodes.GETFIELD, SERVER_EXPLOSION_CLASS, "level", "Lnet/minecraft/server/level/ServerLevel;");
+                    visitVarInsn(Opcodes.ALOAD, workspaceVar);
+                    visitMethodInsn(Opcodes.INVOKESTATIC,
+                            EXPLOSION_HELPER_CLASS,
                             "interactWithBlocks",
-                            "(Ljava/util/List;)V",
+                            "(L" + SERVER_EXPLOSION_CLASS + ";Lnet/minecraft/server/level/ServerLevel;L" + EXPLOSION_WORKSPACE_CLASS + ";)V",
                             false);
 
                     // profilerFiller.pop();
@@ -242,17 +270,26 @@ public class ExplosionReplaceTransformer extends ClassVisitor {
                     org.objectweb.asm.Label skipFireLabel = new org.objectweb.asm.Label();
                     visitJumpInsn(Opcodes.IFEQ, skipFireLabel);
 
-                    // this.createFire(optimizedList);
+                    // ExplosionHelper.createFire(this.level, workspace);
                     visitVarInsn(Opcodes.ALOAD, 0); // this
-                    visitVarInsn(Opcodes.ALOAD, optimizedListVar); // optimized list
-                    visitMethodInsn(Opcodes.INVOKEVIRTUAL,
-                            SERVER_EXPLOSION_CLASS,
+                    visitFieldInsn(Opcodes.GETFIELD, SERVER_EXPLOSION_CLASS, "level", "Lnet/minecraft/server/level/ServerLevel;");
+                    visitVarInsn(Opcodes.ALOAD, workspaceVar);
+                    visitMethodInsn(Opcodes.INVOKESTATIC,
+                            EXPLOSION_HELPER_CLASS,
                             "createFire",
-                            "(Ljava/util/List;)V",
+                            "(Lnet/minecraft/server/level/ServerLevel;L" + EXPLOSION_WORKSPACE_CLASS + ";)V",
                             false);
 
                     visitLabel(skipFireLabel);
 
+                    // 6. ExplosionWorkspace.release(workspace);
+                    visitVarInsn(Opcodes.ALOAD, workspaceVar);
+                    visitMethodInsn(Opcodes.INVOKESTATIC,
+                            EXPLOSION_WORKSPACE_CLASS,
+                            "release",
+                            "(L" + EXPLOSION_WORKSPACE_CLASS + ";)V",
+                            false);
+
                     // Return
                     visitInsn(Opcodes.RETURN);
                 }
@@ -0,0 +1,60 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.math.FastMathLinker;
+import de.zonlykroks.asmplayground.math.KernelTable;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Emits the call to a FastMath function, either as a plain INVOKESTATIC into the FastMath mode switch
+ * or as an INVOKEDYNAMIC bound to the active kernel through {@link FastMathLinker}.
+ */
+public class FastMathCalls {
+    private static final String FAST_MATH = "de/zonlykroks/asmplayground/math/FastMath";
+
+    private static final Handle BOOTSTRAP = new Handle(
+            Opcodes.H_INVOKESTATIC,
+            FastMathLinker.OWNER,
+            FastMathLinker.BOOTSTRAP_NAME,
+            FastMathLinker.BOOTSTRAP_DESC,
+            false
+    );
+
+    /**
+     * @param classVersion version of the class being transformed, INVOKEDYNAMIC needs Java 7 class files
+     */
+    public static void invoke(MethodVisitor mv, int classVersion, String name, String desc) {
+        if (ModConfig.INSTANCE.useInvokeDynamic && (classVersion & 0xFFFF) >= Opcodes.V1_7) {
+            mv.visitInvokeDynamicInsn(name, desc, BOOTSTRAP);
+        } else {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, FAST_MATH, name, desc, false);
+        }
+    }
+
+    /**
+     * Calls one kernel directly, bypassing the mode switch. Kernels without a float overload get the
+     * float widened and the result narrowed, which needs one more stack slot than the original call.
+     *
+     * @return true if the extra stack slot is needed
+     */
+    public static boolean invokeKernel(MethodVisitor mv, KernelTable.KernelRef kernel, String desc) {
+        if ("(F)F".equals(desc) && !hasFloatOverload(kernel)) {
+            mv.visitInsn(Opcodes.F2D);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, kernel.internalOwner(), kernel.name(), "(D)D", false);
+            mv.visitInsn(Opcodes.D2F);
+            return true;
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, kernel.internalOwner(), kernel.name(), desc, false);
+        return false;
+    }
+
+    private static boolean hasFloatOverload(KernelTable.KernelRef kernel) {
+        try {
+            return kernel.owner().getMethod(kernel.name(), float.class).getReturnType() == float.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rewrites the {@code (int) Math.floor(x)} and {@code (long) Math.floor(x)} idiom, a floor call directly
+ * followed by D2I / D2L, into one call of {@code FastMath.floorInt} / {@code floorLong}, which never
+ * round trip through a floored double. Runs after the {@link RedirectTransformer} and only rewrites the
+ * FastMath.floor calls it left behind, so a floor the {@link RedirectPolicy} keeps on Math stays as it is.
+ * Direct Mth.floor / lfloor calls are redirected by {@link RedirectRules}.
+ */
+public class FloorCastTransformer extends ClassVisitor {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final String FAST_MATH = "de/zonlykroks/asmplayground/math/FastMath";
+    private static final AtomicInteger REWRITTEN_SITES = new AtomicInteger();
+
+    private String currentClass;
+    private int rewrittenInClass;
+
+    public FloorCastTransformer(int api, ClassVisitor nextVisitor) {
+        super(api, nextVisitor);
+    }
+
+    /**
+     * @return number of floor casts rewritten so far, across all classes
+     */
+    public static int rewrittenSites() {
+        return REWRITTEN_SITES.get();
+    }
+
+    @Override
+    public void visit(int version,
+                      int access,
+                      String name,
+                      String signature,
+                      String superName,
+                      String[] interfaces) {
+        this.currentClass = name;
+        super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access,
+                                     String methodName,
+                                     String descriptor,
+                                     String signature,
+                                     String[] exceptions) {
+        MethodVisitor mv = super.visitMethod(access, methodName, descriptor, signature, exceptions);
+        if (mv == null || !ModConfig.INSTANCE.optimizeFloorToInt) {
+            return mv;
+        }
+
+        // Same buffering as the sin/cos fusion, the pair has to be seen as a whole before anything is emitted
+        final MethodVisitor next = mv;
+        return new MethodNode(api, access, methodName, descriptor, signature, exceptions) {
+            @Override
+            public void visitEnd() {
+                rewrittenInClass += rewrite(this);
+                accept(next);
+            }
+        };
+    }
+
+    @Override
+    public void visitEnd() {
+        if (rewrittenInClass > 0) {
+            REWRITTEN_SITES.addAndGet(rewrittenInClass);
+            LOGGER.debug("Rewrote {} floor cast(s) in {}", rewrittenInClass, currentClass);
+        }
+        super.visitEnd();
+    }
+
+    private static int rewrite(MethodNode method) {
+        int rewritten = 0;
+        for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (!(insn instanceof MethodInsnNode call) || !isFloor(call)) continue;
+
+            // Only the immediately following instruction, a label in between could be a jump target
+            AbstractInsnNode cast = call.getNext();
+            if (cast == null || (cast.getOpcode() != Opcodes.D2I && cast.getOpcode() != Opcodes.D2L)) continue;
+
+            boolean toInt = cast.getOpcode() == Opcodes.D2I;
+            MethodInsnNode floor = new MethodInsnNode(Opcodes.INVOKESTATIC, FAST_MATH,
+                    toInt ? "floorInt" : "floorLong", toInt ? "(D)I" : "(D)J", false);
+            method.instructions.set(call, floor);
+            method.instructions.remove(cast);
+            insn = floor;
+            rewritten++;
+        }
+        return rewritten;
+    }
+
+    private static boolean isFloor(MethodInsnNode call) {
+        return call.getOpcode() == Opcodes.INVOKESTATIC
+                && FAST_MATH.equals(call.owner)
+                && "floor".equals(call.name)
+                && "(D)D".equals(call.desc);
+    }
+}
@@ -0,0 +1,287 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.impl.modes.ArcSinCosTanRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.impl.modes.SqrtRedirectMode;
+import de.zonlykroks.asmplayground.math.KernelTable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Optional asm_playground_policy.json next to the config, narrowing or widening what the
+ * {@link RedirectTransformer} rewrites:
+ * <pre>{@code
+ * {
+ *   "include": ["net.minecraft.**"],
+ *   "exclude": ["net.minecraft.data.**"],
+ *   "rules": [
+ *     {"classes": "net.minecraft.world.level.levelgen.**", "kernel": "JDK"},
+ *     {"classes": "net.minecraft.client.particle.**", "functions": ["sin", "cos"], "kernel": "LUT"},
+ *     {"classes": "net.minecraft.world.entity.Entity", "methods": "move", "functions": ["sqrt"], "sites": [0], "redirect": false}
+ *   ]
+ * }
+ * }</pre>
+ * Classes are matched by their dotted name, {@code *} stays within one package segment and {@code **}
+ * crosses them. A rule can restrict the method name, the called function and the index of the call
+ * among calls to the same target in that method. The first matching rule decides: {@code redirect}
+ * overrides the config toggle, {@code kernel} pins the call to one mode's kernel from {@link KernelTable}.
+ * Everything is resolved while transforming, a redirected call carries no policy cost.
+ */
+public final class RedirectPolicy {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final Gson GSON = new Gson();
+    private static final Path POLICY_PATH = ModConfig.configDir().resolve("asm_playground_policy.json");
+
+    private static volatile RedirectPolicy current;
+
+    private final String source;
+    private final List<Pattern> include = new ArrayList<>();
+    private final List<Pattern> exclude = new ArrayList<>();
+    private final List<Rule> rules = new ArrayList<>();
+
+    // Gson shape of the file
+    private static final class PolicyFile {
+        List<String> include;
+        List<String> exclude;
+        List<RuleFile> rules;
+    }
+
+    private static final class RuleFile {
+        String classes;
+        String methods;
+        List<String> functions;
+        List<Integer> sites;
+        Boolean redirect;
+        String kernel;
+    }
+
+    private record Rule(Pattern classes, Pattern methods, List<String> functions, List<Integer> sites,
+                        Boolean redirect, String kernel) {
+    }
+
+    /**
+     * What a rule decided for one call site.
+     *
+     * @param redirect whether to rewrite the call at all
+     * @param kernel   the kernel to call directly, or null for the usual FastMath / INVOKEDYNAMIC call
+     */
+    public record Decision(boolean redirect, KernelTable.KernelRef kernel) {
+    }
+
+    private RedirectPolicy(String source) {
+        this.source = source;
+    }
+
+    /**
+     * @return the policy from disk, loaded on first use. Without a file every class containing
+     * net.minecraft is transformed and the config toggles decide alone
+     */
+    public static RedirectPolicy current() {
+        RedirectPolicy policy = current;
+        if (policy == null) {
+            synchronized (RedirectPolicy.class) {
+                if (current == null) {
+                    current = load();
+                }
+                policy = current;
+            }
+        }
+        return policy;
+    }
+
+    private static RedirectPolicy load() {
+        if (!Files.exists(POLICY_PATH)) {
+            return new RedirectPolicy("");
+        }
+
+        try {
+            String source = Files.readString(POLICY_PATH);
+            PolicyFile file = GSON.fromJson(source, PolicyFile.class);
+            RedirectPolicy policy = new RedirectPolicy(source);
+            if (file != null) {
+                policy.parse(file);
+            }
+            LOGGER.info("Loaded redirect policy with {} rule(s)", policy.rules.size());
+            return policy;
+        } catch (IOException | JsonParseException | IllegalArgumentException e) {
+            LOGGER.error("Failed to load redirect policy, ignoring it: {}", e.getMessage());
+            return new RedirectPolicy("");
+        }
+    }
+
+    private void parse(PolicyFile file) {
+        if (file.include != null) file.include.forEach(glob -> include.add(glob(glob)));
+        if (file.exclude != null) file.exclude.forEach(glob -> exclude.add(glob(glob)));
+        if (file.rules == null) return;
+
+        for (RuleFile rule : file.rules) {
+            if (rule.kernel != null && !isKernelName(rule.kernel)) {
+                LOGGER.warn("Redirect policy names unknown kernel {}, ignoring that rule", rule.kernel);
+                continue;
+            }
+            rules.add(new Rule(
+                    rule.classes == null ? null : glob(rule.classes),
+                    rule.methods == null ? null : glob(rule.methods),
+                    rule.functions == null ? List.of() : List.copyOf(rule.functions),
+                    rule.sites == null ? List.of() : List.copyOf(rule.sites),
+                    rule.redirect,
+                    rule.kernel));
+        }
+    }
+
+    /**
+     * Text of the policy file, empty without one. Part of the transform cache fingerprint.
+     */
+    public String source() {
+        return source;
+    }
+
+    /**
+     * Whether the pipeline should look at a class at all.
+     */
+    public boolean transforms(String className) {
+        String name = className.replace('/', '.');
+        if (include.isEmpty()) {
+            if (!name.contains("net.minecraft")) return false;
+        } else if (!matchesAny(include, name)) {
+            return false;
+        }
+        return !matchesAny(exclude, name);
+    }
+
+    /**
+     * Whether some rule can switch on a call to {@code function} that the config leaves off.
+     */
+    public boolean mayEnable(String function) {
+        for (Rule rule : rules) {
+            if ((Boolean.TRUE.equals(rule.redirect) || (rule.redirect == null && rule.kernel != null))
+                    && (rule.functions.isEmpty() || rule.functions.contains(function))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the rules that can apply inside {@code className}, null if there are none
+     */
+    public ClassPolicy forClass(String className) {
+        if (rules.isEmpty()) return null;
+
+        String name = className.replace('/', '.');
+        List<Rule> matching = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (rule.classes == null || rule.classes.matcher(name).matches()) {
+                matching.add(rule);
+            }
+        }
+        return matching.isEmpty() ? null : new ClassPolicy(matching);
+    }
+
+    /**
+     * The rules for one class, narrowed further per method.
+     */
+    public static final class ClassPolicy {
+        private final List<Rule> rules;
+
+        private ClassPolicy(List<Rule> rules) {
+            this.rules = rules;
+        }
+
+        /**
+         * @return the rules that can apply inside {@code methodName}, null if there are none
+         */
+        public MethodPolicy forMethod(String methodName) {
+            List<Rule> matching = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (rule.methods == null || rule.methods.matcher(methodName).matches()) {
+                    matching.add(rule);
+                }
+            }
+            return matching.isEmpty() ? null : new MethodPolicy(matching);
+        }
+    }
+
+    /**
+     * The rules for one method.
+     */
+    public static final class MethodPolicy {
+        private final List<Rule> rules;
+
+        private MethodPolicy(List<Rule> rules) {
+            this.rules = rules;
+        }
+
+        /**
+         * @param site index of this call among the method's calls to the same target
+         * @return the first matching rule's decision, or null to fall back to the config
+         */
+        public Decision decide(RedirectRule target, int site, boolean enabled) {
+            for (Rule rule : rules) {
+                if (!rule.functions.isEmpty() && !rule.functions.contains(target.name())) continue;
+                if (!rule.sites.isEmpty() && !rule.sites.contains(site)) continue;
+
+                KernelTable.KernelRef kernel = target.kernel() && rule.kernel != null ? kernel(target.name(), rule.kernel) : null;
+                boolean redirect = rule.redirect != null ? rule.redirect : enabled || kernel != null;
+                return new Decision(redirect, redirect ? kernel : null);
+            }
+            return null;
+        }
+    }
+
+    private static boolean isKernelName(String kernel) {
+        for (String function : new String[]{"sin", "asin", "sqrt"}) {
+            if (kernel(function, kernel) != null) return true;
+        }
+        return false;
+    }
+
+    // Null if the mode does not exist for this function or is AUTO, which has no kernel of its own
+    private static KernelTable.KernelRef kernel(String function, String mode) {
+        try {
+            return switch (function) {
+                case "sin", "cos", "tan" -> KernelTable.trig(function, SinRedirectMode.valueOf(mode));
+                case "asin", "acos", "atan" -> KernelTable.arcTrig(function, ArcSinCosTanRedirectMode.valueOf(mode));
+                case "sqrt" -> KernelTable.sqrt(SqrtRedirectMode.valueOf(mode));
+                default -> null;
+            };
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) return true;
+        }
+        return false;
+    }
+
+    private static Pattern glob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^.]*");
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
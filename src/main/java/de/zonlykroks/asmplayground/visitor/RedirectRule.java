@@ -0,0 +1,32 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import org.objectweb.asm.MethodVisitor;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * One call site redirect: a call matching opcode, owner, name and descriptor is replaced by whatever
+ * the emitter writes, as long as the rule is enabled in the config.
+ *
+ * @param kernel whether the call goes to a FastMath kernel, a {@link RedirectPolicy} can then pin it to a specific one
+ */
+public record RedirectRule(int opcode,
+                           String owner,
+                           String name,
+                           String descriptor,
+                           BooleanSupplier enabled,
+                           boolean kernel,
+                           Emitter emitter) {
+
+    @FunctionalInterface
+    public interface Emitter {
+        /**
+         * Writes the replacement, leaving the stack exactly as the original call would.
+         */
+        void emit(MethodVisitor mv, int classVersion);
+    }
+
+    public boolean matches(int opcode, String owner, String descriptor) {
+        return this.opcode == opcode && this.owner.equals(owner) && this.descriptor.equals(descriptor);
+    }
+}
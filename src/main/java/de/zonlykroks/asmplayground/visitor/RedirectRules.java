@@ -0,0 +1,116 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Every call site redirect {@link RedirectTransformer} applies, indexed by the called method's name.
+ * A new redirect is one more line here, not another visitor in the chain.
+ */
+public final class RedirectRules {
+    private static final String MTH = "net/minecraft/util/Mth";
+    private static final String MATH = "java/lang/Math";
+    private static final String STRICT_MATH = "java/lang/StrictMath";
+    private static final String FAST_MATH = "de/zonlykroks/asmplayground/math/FastMath";
+    private static final String VEC3 = "net/minecraft/world/phys/Vec3";
+
+    private static final List<RedirectRule> ALL = List.copyOf(rules());
+    private static final Map<String, RedirectRule[]> BY_NAME = index(ALL);
+
+    private RedirectRules() {
+    }
+
+    /**
+     * @return the rules for calls to methods with this name, or null if there are none
+     */
+    public static RedirectRule[] forName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    /**
+     * @return every rule, enabled or not, in table order
+     */
+    public static List<RedirectRule> all() {
+        return ALL;
+    }
+
+    /**
+     * Calls the redirect has to leave alone in {@code className}: calls into the class itself, and every
+     * sin / cos / tan inside Mth, whose SIN table is built from Math.sin and backs Mth.sin and cos everywhere.
+     */
+    public static boolean leftAloneIn(String className, String owner, RedirectRule rule) {
+        if (owner.equals(className)) {
+            return true;
+        }
+        return MTH.equals(className)
+                && ("sin".equals(rule.name()) || "cos".equals(rule.name()) || "tan".equals(rule.name()));
+    }
+
+    private static List<RedirectRule> rules() {
+        List<RedirectRule> rules = new ArrayList<>();
+
+        // Config is read on every match, ModConfig.INSTANCE is replaced when the file is loaded
+        BooleanSupplier trig = () -> ModConfig.INSTANCE.sinRedirectEnabled;
+        BooleanSupplier sqrt = () -> ModConfig.INSTANCE.optimizeMathSqrt;
+
+        // Float call sites go to the float kernels, double ones to the double kernels
+        for (String name : List.of("sin", "cos", "tan")) {
+            rules.add(kernel(MTH, name, "(F)F", trig));
+            rules.add(kernel(MATH, name, "(D)D", trig));
+            rules.add(kernel(STRICT_MATH, name, "(D)D", trig));
+        }
+        for (String name : List.of("asin", "acos", "atan")) {
+            rules.add(kernel(MATH, name, "(D)D", trig));
+            rules.add(kernel(STRICT_MATH, name, "(D)D", trig));
+        }
+
+        rules.add(kernel(MATH, "sqrt", "(D)D", sqrt));
+        rules.add(kernel(MTH, "sqrt", "(F)F", sqrt));
+        // No kernel table entry for invSqrt, it always goes through FastMath
+        rules.add(call(Opcodes.INVOKESTATIC, MTH, "invSqrt", "(F)F", sqrt, FAST_MATH, "invSqrt", "(F)F"));
+
+        rules.add(call(Opcodes.INVOKESTATIC, MATH, "floor", "(D)D",
+                () -> ModConfig.INSTANCE.optimizeMathFloor,
+                FAST_MATH, "floor", "(D)D"));
+
+        // (int) Math.floor(x) goes through the floor rule above, FloorCastTransformer then turns the pair into floorInt
+        BooleanSupplier floorToInt = () -> ModConfig.INSTANCE.optimizeFloorToInt;
+        rules.add(call(Opcodes.INVOKESTATIC, MTH, "floor", "(D)I", floorToInt, FAST_MATH, "floorInt", "(D)I"));
+        rules.add(call(Opcodes.INVOKESTATIC, MTH, "floor", "(F)I", floorToInt, FAST_MATH, "floorInt", "(F)I"));
+        rules.add(call(Opcodes.INVOKESTATIC, MTH, "lfloor", "(D)J", floorToInt, FAST_MATH, "floorLong", "(D)J"));
+
+        rules.add(call(Opcodes.INVOKEVIRTUAL, VEC3, "normalize", "()L" + VEC3 + ";",
+                () -> ModConfig.INSTANCE.optimizeVecNormalize,
+                "de/zonlykroks/asmplayground/math/FastVec3", "normalize", "(L" + VEC3 + ";)L" + VEC3 + ";"));
+
+        return rules;
+    }
+
+    private static RedirectRule kernel(String owner, String name, String descriptor, BooleanSupplier enabled) {
+        return new RedirectRule(Opcodes.INVOKESTATIC, owner, name, descriptor, enabled, true,
+                (mv, classVersion) -> FastMathCalls.invoke(mv, classVersion, name, descriptor));
+    }
+
+    private static RedirectRule call(int opcode, String owner, String name, String descriptor, BooleanSupplier enabled,
+                                     String targetOwner, String targetName, String targetDescriptor) {
+        return new RedirectRule(opcode, owner, name, descriptor, enabled, false,
+                (mv, classVersion) -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, targetOwner, targetName, targetDescriptor, false));
+    }
+
+    private static Map<String, RedirectRule[]> index(List<RedirectRule> rules) {
+        Map<String, List<RedirectRule>> byName = new HashMap<>();
+        for (RedirectRule rule : rules) {
+            byName.computeIfAbsent(rule.name(), name -> new ArrayList<>()).add(rule);
+        }
+
+        Map<String, RedirectRule[]> index = new HashMap<>();
+        byName.forEach((name, list) -> index.put(name, list.toArray(RedirectRule[]::new)));
+        return Map.copyOf(index);
+    }
+}
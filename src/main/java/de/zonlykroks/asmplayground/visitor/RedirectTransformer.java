@@ -0,0 +1,127 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.profiling.CallSiteCounters;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies all {@link RedirectRules} in one pass. A call costs one hash lookup on its name, and only
+ * the few rules sharing that name compare owner and descriptor.
+ */
+public class RedirectTransformer extends ClassVisitor {
+    private static final String COUNTERS = "de/zonlykroks/asmplayground/profiling/CallSiteCounters";
+
+    private final boolean countSites = ModConfig.INSTANCE.countCallSites;
+    private String currentClass;
+    private RedirectPolicy.ClassPolicy policy;
+    private int classVersion;
+
+    public RedirectTransformer(int api, ClassVisitor nextVisitor) {
+        super(api, nextVisitor);
+    }
+
+    @Override
+    public void visit(int version,
+                      int access,
+                      String name,
+                      String signature,
+                      String superName,
+                      String[] interfaces) {
+        // Record the class name, some calls are left alone inside their own class, see RedirectRules.leftAloneIn
+        this.currentClass = name;
+        this.classVersion = version;
+        this.policy = RedirectPolicy.current().forClass(name);
+        super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access,
+                                     String methodName,
+                                     String descriptor,
+                                     String signature,
+                                     String[] exceptions) {
+        MethodVisitor mv = super.visitMethod(access, methodName, descriptor, signature, exceptions);
+        if (mv == null) {
+            return null;
+        }
+
+        RedirectPolicy.MethodPolicy methodPolicy = policy == null ? null : policy.forMethod(methodName);
+        return new MethodVisitor(api, mv) {
+            // Calls to each rule's target so far, the policy picks sites by this index
+            private final Map<RedirectRule, Integer> sites = methodPolicy == null ? null : new HashMap<>();
+            private int line;
+            private boolean extraStack;
+
+            @Override
+            public void visitLineNumber(int line, Label start) {
+                this.line = line;
+                super.visitLineNumber(line, start);
+            }
+
+            @Override
+            public void visitMethodInsn(int opcode,
+                                        String owner,
+                                        String name,
+                                        String desc,
+                                        boolean isInterface) {
+                RedirectRule[] rules = RedirectRules.forName(name);
+                if (rules != null) {
+                    for (RedirectRule rule : rules) {
+                        if (!rule.matches(opcode, owner, desc)) {
+                            continue;
+                        }
+                        if (RedirectRules.leftAloneIn(currentClass, owner, rule)) {
+                            break;
+                        }
+
+                        boolean enabled = rule.enabled().getAsBoolean();
+                        RedirectPolicy.Decision decision = null;
+                        if (methodPolicy != null) {
+                            int site = sites.merge(rule, 1, Integer::sum) - 1;
+                            decision = methodPolicy.decide(rule, site, enabled);
+                        }
+                        if (decision == null ? !enabled : !decision.redirect()) {
+                            break;
+                        }
+
+                        if (countSites) {
+                            count(rule);
+                        }
+                        if (decision != null && decision.kernel() != null) {
+                            extraStack |= FastMathCalls.invokeKernel(mv, decision.kernel(), desc);
+                        } else {
+                            rule.emitter().emit(mv, classVersion);
+                        }
+                        return;
+                    }
+                }
+
+                super.visitMethodInsn(opcode, owner, name, desc, isInterface);
+            }
+
+            // CallSiteCounters.hit(site), the arguments of the redirected call stay on the stack below the id
+            private void count(RedirectRule rule) {
+                int site = CallSiteCounters.register(rule.owner() + "." + rule.name() + rule.descriptor(),
+                        currentClass, methodName + descriptor, line);
+                if (site < 0) {
+                    return;
+                }
+                super.visitIntInsn(Opcodes.SIPUSH, site);
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, COUNTERS, "hit", "(I)V", false);
+                extraStack = true;
+            }
+
+            @Override
+            public void visitMaxs(int maxStack, int maxLocals) {
+                // The counter id and a widened float argument are never on the stack at the same time
+                super.visitMaxs(extraStack ? maxStack + 1 : maxStack, maxLocals);
+            }
+        };
+    }
+}
@@ -0,0 +1,355 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replaces a sin and a cos call on the same value within one basic block with a single
+ * {@code FastMath.sincos} call, so the argument reduction only runs once.
+ * <p>
+ * "Same value" is decided on the {@link SourceInterpreter} frames: both arguments have to be built from the
+ * same locals, constants, field reads and arithmetic, with nothing in between that could change any of them.
+ * The first call site computes both results and keeps the partner's in a fresh local, the second site
+ * drops its argument and loads that local instead. Float pairs travel as a packed long, double pairs
+ * through the thread-confined {@code SinCos} scratch slots.
+ * </p>
+ * <p>
+ * Only RIVENS, TAYLOR and LUT share the argument reduction. In the other sin modes FastMath.sincos runs both
+ * kernels anyway, so a fused float pair gains nothing and a fused double pair is slower than the two calls it
+ * replaced, it adds the ThreadLocal lookup and the array round trip.
+ * </p>
+ * <p>
+ * Runs after the {@link RedirectTransformer} and only fuses the FastMath calls it left behind, so a call the
+ * {@link RedirectPolicy} keeps on Math or pins to a kernel is never turned into a FastMath.sincos.
+ * </p>
+ */
+public class SinCosFusionTransformer extends ClassVisitor {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final String FAST_MATH = "de/zonlykroks/asmplayground/math/FastMath";
+    private static final String SIN_COS = "de/zonlykroks/asmplayground/math/SinCos";
+    private static final String COUNTERS = "de/zonlykroks/asmplayground/profiling/CallSiteCounters";
+    private static final AtomicInteger FUSED_SITES = new AtomicInteger();
+
+    private String currentClass;
+    private int fusedInClass;
+
+    public SinCosFusionTransformer(int api, ClassVisitor nextVisitor) {
+        super(api, nextVisitor);
+    }
+
+    /**
+     * @return number of sin/cos pairs fused so far, across all classes
+     */
+    public static int fusedSites() {
+        return FUSED_SITES.get();
+    }
+
+    @Override
+    public void visit(int version,
+                      int access,
+                      String name,
+                      String signature,
+                      String superName,
+                      String[] interfaces) {
+        this.currentClass = name;
+        super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access,
+                                     String methodName,
+                                     String descriptor,
+                                     String signature,
+                                     String[] exceptions) {
+        MethodVisitor mv = super.visitMethod(access, methodName, descriptor, signature, exceptions);
+        if (mv == null
+                || !(ModConfig.INSTANCE.sinRedirectEnabled || RedirectPolicy.current().mayEnable("sin"))
+                || !ModConfig.INSTANCE.fuseSinCos
+                || "net/minecraft/util/Mth".equals(currentClass)) {
+            return mv;
+        }
+
+        // Buffer the method as a tree, fuse, then replay it into the rest of the chain. Inside the node
+        // mv would be MethodNode's own, unset delegate field
+        final MethodVisitor next = mv;
+        return new MethodNode(api, access, methodName, descriptor, signature, exceptions) {
+            @Override
+            public void visitEnd() {
+                fusedInClass += fuse(this);
+                accept(next);
+            }
+        };
+    }
+
+    @Override
+    public void visitEnd() {
+        if (fusedInClass > 0) {
+            FUSED_SITES.addAndGet(fusedInClass);
+            LOGGER.debug("Fused {} sin/cos pair(s) in {}", fusedInClass, currentClass);
+        }
+        super.visitEnd();
+    }
+
+    private int fuse(MethodNode method) {
+        List<MethodInsnNode> calls = new ArrayList<>();
+        boolean hasSin = false, hasCos = false;
+        for (AbstractInsnNode insn : method.instructions) {
+            if (insn instanceof MethodInsnNode call && isSinCos(call)) {
+                calls.add(call);
+                hasSin |= call.name.equals("sin");
+                hasCos |= call.name.equals("cos");
+            }
+        }
+        if (!hasSin || !hasCos) return 0;
+
+        Frame<SourceValue>[] frames;
+        try {
+            frames = new Analyzer<>(new SourceInterpreter()).analyze(currentClass, method);
+        } catch (AnalyzerException e) {
+            LOGGER.debug("Skipping sin/cos fusion in {}.{}: {}", currentClass, method.name, e.getMessage());
+            return 0;
+        }
+
+        Set<LabelNode> boundaries = blockBoundaries(method);
+        Set<MethodInsnNode> paired = new HashSet<>();
+        List<MethodInsnNode[]> pairs = new ArrayList<>();
+
+        // Pair everything first, the frames are indexed by instruction position and rewriting shifts it
+        for (MethodInsnNode first : calls) {
+            if (paired.contains(first)) continue;
+
+            Operand operand = operand(method, frames, first);
+            if (operand == null) continue;
+
+            MethodInsnNode second = findPartner(method, frames, first, operand, boundaries, paired);
+            if (second == null) continue;
+
+            paired.add(first);
+            paired.add(second);
+            pairs.add(new MethodInsnNode[]{first, second});
+        }
+
+        for (MethodInsnNode[] pair : pairs) {
+            rewrite(method, pair[0], pair[1]);
+        }
+        return pairs.size();
+    }
+
+    private static boolean isSinCos(MethodInsnNode call) {
+        return call.getOpcode() == Opcodes.INVOKESTATIC
+                && FAST_MATH.equals(call.owner)
+                && ("sin".equals(call.name) || "cos".equals(call.name))
+                && ("(F)F".equals(call.desc) || "(D)D".equals(call.desc));
+    }
+
+    private static Set<LabelNode> blockBoundaries(MethodNode method) {
+        Set<LabelNode> labels = new HashSet<>();
+        for (AbstractInsnNode insn : method.instructions) {
+            if (insn instanceof JumpInsnNode jump) {
+                labels.add(jump.label);
+            } else if (insn instanceof TableSwitchInsnNode table) {
+                labels.add(table.dflt);
+                labels.addAll(table.labels);
+            } else if (insn instanceof LookupSwitchInsnNode lookup) {
+                labels.add(lookup.dflt);
+                labels.addAll(lookup.labels);
+            }
+        }
+        for (TryCatchBlockNode tryCatch : method.tryCatchBlocks) {
+            labels.add(tryCatch.start);
+            labels.add(tryCatch.end);
+            labels.add(tryCatch.handler);
+        }
+        return labels;
+    }
+
+    private static MethodInsnNode findPartner(MethodNode method,
+                                              Frame<SourceValue>[] frames,
+                                              MethodInsnNode first,
+                                              Operand operand,
+                                              Set<LabelNode> boundaries,
+                                              Set<MethodInsnNode> paired) {
+        // Start at the first instruction of the operand, a store inside the expression counts as well
+        boolean pastFirst = false;
+        for (AbstractInsnNode insn = method.instructions.get(operand.start); insn != null; insn = insn.getNext()) {
+            if (insn == first) {
+                pastFirst = true;
+                continue;
+            }
+
+            if (pastFirst) {
+                if (insn instanceof LabelNode label && boundaries.contains(label)) return null;
+                if (insn instanceof JumpInsnNode || insn instanceof TableSwitchInsnNode || insn instanceof LookupSwitchInsnNode) return null;
+                int opcode = insn.getOpcode();
+                if ((opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN) || opcode == Opcodes.ATHROW) return null;
+
+                if (insn instanceof MethodInsnNode call
+                        && isSinCos(call)
+                        && !paired.contains(call)
+                        && !call.name.equals(first.name)
+                        && call.desc.equals(first.desc)) {
+                    Operand other = operand(method, frames, call);
+                    if (other != null && other.key.equals(operand.key)) return call;
+                }
+            }
+
+            if (operand.invalidatedBy(insn)) return null;
+        }
+        return null;
+    }
+
+    private static void rewrite(MethodNode method, MethodInsnNode first, MethodInsnNode second) {
+        boolean firstIsSin = first.name.equals("sin");
+        int slot = method.maxLocals;
+        method.maxLocals += 2;
+        method.maxStack += 4;
+
+        InsnList head = new InsnList();
+        InsnList tail = new InsnList();
+        if ("(F)F".equals(first.desc)) {
+            head.add(new MethodInsnNode(Opcodes.INVOKESTATIC, FAST_MATH, "sincos", "(F)J", false));
+            head.add(new InsnNode(Opcodes.DUP2));
+            head.add(new VarInsnNode(Opcodes.LSTORE, slot));
+            head.add(unpack(firstIsSin));
+
+            tail.add(new InsnNode(Opcodes.POP));
+            tail.add(new VarInsnNode(Opcodes.LLOAD, slot));
+            tail.add(unpack(!firstIsSin));
+        } else {
+            // Read both scratch slots right away, the next sincos call on this thread overwrites them
+            head.add(new MethodInsnNode(Opcodes.INVOKESTATIC, FAST_MATH, "sincos", "(D)[D", false));
+            head.add(new InsnNode(Opcodes.DUP));
+            head.add(new InsnNode(firstIsSin ? Opcodes.ICONST_1 : Opcodes.ICONST_0));
+            head.add(new InsnNode(Opcodes.DALOAD));
+            head.add(new VarInsnNode(Opcodes.DSTORE, slot));
+            head.add(new InsnNode(firstIsSin ? Opcodes.ICONST_0 : Opcodes.ICONST_1));
+            head.add(new InsnNode(Opcodes.DALOAD));
+
+            tail.add(new InsnNode(Opcodes.POP2));
+            tail.add(new VarInsnNode(Opcodes.DLOAD, slot));
+        }
+
+        method.instructions.insert(first, head);
+        method.instructions.remove(first);
+        method.instructions.insert(second, tail);
+        method.instructions.remove(second);
+    }
+
+    private static MethodInsnNode unpack(boolean sin) {
+        return new MethodInsnNode(Opcodes.INVOKESTATIC, SIN_COS, sin ? "sin" : "cos", "(J)F", false);
+    }
+
+    private static Operand operand(MethodNode method, Frame<SourceValue>[] frames, MethodInsnNode call) {
+        Operand operand = new Operand(method.instructions.indexOf(call));
+        operand.key = stackKey(method, frames, call, 0, operand, 0);
+        return operand.key == null ? null : operand;
+    }
+
+    /**
+     * Structural key of the value {@code fromTop} entries below the top of the stack right before {@code at},
+     * or null if it is not built purely from locals, constants, field reads and arithmetic.
+     */
+    private static String stackKey(MethodNode method, Frame<SourceValue>[] frames, AbstractInsnNode at, int fromTop, Operand operand, int depth) {
+        Frame<SourceValue> frame = frames[method.instructions.indexOf(at)];
+        if (frame == null || depth > 8) return null;
+
+        SourceValue value = frame.getStack(frame.getStackSize() - 1 - fromTop);
+        if (value.insns.size() != 1) return null;
+
+        AbstractInsnNode source = value.insns.iterator().next();
+        operand.start = Math.min(operand.start, method.instructions.indexOf(source));
+        return expressionKey(method, frames, source, operand, depth + 1);
+    }
+
+    private static String expressionKey(MethodNode method, Frame<SourceValue>[] frames, AbstractInsnNode insn, Operand operand, int depth) {
+        int opcode = insn.getOpcode();
+
+        if (insn instanceof VarInsnNode var && opcode >= Opcodes.ILOAD && opcode <= Opcodes.ALOAD) {
+            operand.locals.add(var.var);
+            return "v" + opcode + ":" + var.var;
+        }
+        if (insn instanceof IntInsnNode push && opcode != Opcodes.NEWARRAY) {
+            return "i" + push.operand;
+        }
+        if (insn instanceof LdcInsnNode ldc && ldc.cst instanceof Number number) {
+            return "l" + number.getClass().getSimpleName() + number;
+        }
+        if (insn instanceof FieldInsnNode field) {
+            operand.readsHeap = true;
+            if (opcode == Opcodes.GETSTATIC) return "s" + field.owner + "." + field.name;
+            if (opcode != Opcodes.GETFIELD) return null;
+            String receiver = stackKey(method, frames, insn, 0, operand, depth);
+            return receiver == null ? null : "f" + field.owner + "." + field.name + "(" + receiver + ")";
+        }
+        if (!(insn instanceof InsnNode)) return null;
+
+        if (opcode >= Opcodes.ACONST_NULL && opcode <= Opcodes.DCONST_1) {
+            return "c" + opcode;
+        }
+        boolean unary = (opcode >= Opcodes.INEG && opcode <= Opcodes.DNEG) || (opcode >= Opcodes.I2L && opcode <= Opcodes.I2S);
+        if (unary) {
+            String value = stackKey(method, frames, insn, 0, operand, depth);
+            return value == null ? null : opcode + "(" + value + ")";
+        }
+        boolean binary = (opcode >= Opcodes.IADD && opcode <= Opcodes.DREM)
+                || (opcode >= Opcodes.ISHL && opcode <= Opcodes.LXOR)
+                || (opcode >= Opcodes.LCMP && opcode <= Opcodes.DCMPG);
+        if (binary) {
+            String left = stackKey(method, frames, insn, 1, operand, depth);
+            String right = left == null ? null : stackKey(method, frames, insn, 0, operand, depth);
+            return right == null ? null : "(" + left + " " + opcode + " " + right + ")";
+        }
+        return null;
+    }
+
+    /**
+     * What a sin/cos argument was computed from, and what would have to happen for a later identical
+     * expression to produce a different value.
+     */
+    private static final class Operand {
+        private final Set<Integer> locals = new HashSet<>();
+        private boolean readsHeap;
+        private int start;
+        private String key;
+
+        private Operand(int start) {
+            this.start = start;
+        }
+
+        private boolean invalidatedBy(AbstractInsnNode insn) {
+            int opcode = insn.getOpcode();
+            if (insn instanceof VarInsnNode var && opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE) {
+                return locals.contains(var.var);
+            }
+            if (insn instanceof IincInsnNode iinc) {
+                return locals.contains(iinc.var);
+            }
+            if (!readsHeap) return false;
+
+            return opcode == Opcodes.PUTFIELD
+                    || opcode == Opcodes.PUTSTATIC
+                    || (opcode >= Opcodes.IASTORE && opcode <= Opcodes.SASTORE)
+                    || opcode == Opcodes.MONITORENTER
+                    || opcode == Opcodes.MONITOREXIT
+                    // CallSiteCounters.hit in front of a counted site only touches the counters
+                    || (insn instanceof MethodInsnNode call && !COUNTERS.equals(call.owner))
+                    || insn instanceof InvokeDynamicInsnNode;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package de.zonlykroks.asmplayground.visitor;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.visitor.cache.TransformCache;
+import de.zonlykroks.asmplayground.visitor.timing.TransformMetrics;
+import de.zonlykroks.massasmer.MassASMTransformer;
+import org.objectweb.asm.ClassVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * All our visitors, registered with MassAsmer as a single transformer so the {@link TransformCache}
+ * sees the class before the first of them and after the last. Visitors are chained in the order they
+ * were added.
+ */
+public final class TransformPipeline {
+    private final List<Stage> stages = new ArrayList<>();
+    private TransformCache cache;
+
+    private record Stage(String id, Function<ClassVisitor, ClassVisitor> factory) {
+    }
+
+    /**
+     * Adds a visitor, wrapped by {@link TransformMetrics} which leaves it untouched unless profiling is on.
+     */
+    public TransformPipeline add(String id, Function<ClassVisitor, ClassVisitor> factory) {
+        stages.add(new Stage(id, TransformMetrics.track(id, factory)));
+        return this;
+    }
+
+    public void register(String id) {
+        // Counted call sites get their ids while transforming, replayed classes would call unregistered ones
+        if (ModConfig.INSTANCE.cacheTransformedClasses && !ModConfig.INSTANCE.countCallSites) {
+            // The policy decides what the stages emit just like the config does, so it is part of the fingerprint
+            List<String> ids = new ArrayList<>(stages.stream().map(Stage::id).toList());
+            ids.add(RedirectPolicy.current().source());
+            cache = TransformCache.open(ids);
+        }
+
+        MassASMTransformer.registerVisitor(id, this::accepts, this::visitor);
+    }
+
+    // Classes turned down here are not parsed or rewritten at all
+    private boolean accepts(String className) {
+        return RedirectPolicy.current().transforms(className);
+    }
+
+    private ClassVisitor visitor(String className, ClassVisitor next) {
+        return cache == null ? chain(next) : cache.wrap(className, next, this::chain);
+    }
+
+    private ClassVisitor chain(ClassVisitor next) {
+        ClassVisitor chain = next;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            chain = stages.get(i).factory.apply(chain);
+        }
+        return chain;
+    }
+}
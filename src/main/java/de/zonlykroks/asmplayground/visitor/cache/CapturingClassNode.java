@@ -0,0 +1,50 @@
+package de.zonlykroks.asmplayground.visitor.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.Arrays;
+
+/**
+ * Buffers what the visitors produced, passes it on and stores it in the {@link TransformCache}. Only
+ * used on a cache miss, so the extra tree and write are paid once per class and setup.
+ */
+final class CapturingClassNode extends ClassNode {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+
+    private final TransformCache cache;
+    private final String className;
+    // The class as it reached the visitors, written by a plain ClassWriter
+    private final byte[] original;
+    private final ClassVisitor next;
+
+    CapturingClassNode(TransformCache cache, String className, byte[] original, ClassVisitor next) {
+        super(Opcodes.ASM9);
+        this.cache = cache;
+        this.className = className;
+        this.original = original;
+        this.next = next;
+    }
+
+    @Override
+    public void visitEnd() {
+        super.visitEnd();
+        accept(next);
+
+        // The class still loads if caching it goes wrong
+        try {
+            ClassWriter writer = new ClassWriter(0);
+            accept(writer);
+            byte[] transformed = writer.toByteArray();
+
+            // The input was written the same way, a class the visitors left alone comes out byte for byte the same
+            cache.store(className, original, Arrays.equals(transformed, original) ? null : transformed);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Not caching {}: {}", className, e.toString());
+        }
+    }
+}
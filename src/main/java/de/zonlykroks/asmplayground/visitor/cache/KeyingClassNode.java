@@ -0,0 +1,59 @@
+package de.zonlykroks.asmplayground.visitor.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.util.function.Function;
+
+/**
+ * Sits in front of the visitors and buffers the class as it reaches them, after everything that ran
+ * before us. The cache key is that class written out, so a mixin or transformer upstream that changes
+ * the input misses the cache instead of being overwritten by stale output.
+ */
+final class KeyingClassNode extends ClassNode {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+
+    private final TransformCache cache;
+    private final String className;
+    private final ClassVisitor next;
+    private final Function<ClassVisitor, ClassVisitor> visitors;
+
+    KeyingClassNode(TransformCache cache, String className, ClassVisitor next, Function<ClassVisitor, ClassVisitor> visitors) {
+        super(Opcodes.ASM9);
+        this.cache = cache;
+        this.className = className;
+        this.next = next;
+        this.visitors = visitors;
+    }
+
+    @Override
+    public void visitEnd() {
+        super.visitEnd();
+
+        byte[] incoming;
+        try {
+            ClassWriter writer = new ClassWriter(0);
+            accept(writer);
+            incoming = writer.toByteArray();
+        } catch (RuntimeException e) {
+            // The class still loads if keying it goes wrong, it just runs through the visitors uncached
+            LOGGER.debug("Not caching {}: {}", className, e.toString());
+            accept(visitors.apply(next));
+            return;
+        }
+
+        TransformCache.Entry entry = cache.lookup(className, incoming);
+        if (entry == null) {
+            accept(visitors.apply(new CapturingClassNode(cache, className, incoming, next)));
+        } else if (entry.unchanged()) {
+            accept(next);
+        } else {
+            new ClassReader(cache.transformed(entry)).accept(next, 0);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package de.zonlykroks.asmplayground.visitor.cache;
+
+import com.google.gson.Gson;
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import net.fabricmc.loader.api.FabricLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassVisitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * What our visitors made of each class on earlier boots, in an append-only file under
+ * config/cache. Entries are keyed by class name and a hash of the class as it reaches our visitors,
+ * after mixins and earlier transformers, and hold either the transformed bytes or a marker that nothing
+ * changed.
+ * <p>
+ * The file starts with a fingerprint of everything else the output depends on: our version, every
+ * loaded mod and its version (Minecraft included), the config and the registered visitors. Any
+ * difference throws the whole file away. Records carry a CRC, reading stops at the first torn or
+ * corrupt one and later appends overwrite it.
+ * </p>
+ */
+public final class TransformCache {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+    private static final Path CACHE_PATH = ModConfig.configDir().resolve("cache").resolve("asm_playground_transforms.bin");
+
+    private static final int MAGIC = 0x41505443; // APTC
+    private static final int FORMAT = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 32;
+    // Stop appending past this, the cache is only worth it while mapping it is cheap
+    private static final long MAX_SIZE = 256L << 20;
+
+    private static final byte UNCHANGED = 0;
+    private static final byte TRANSFORMED = 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private long end;
+    private boolean full;
+
+    /**
+     * @param data where the transformed bytes start in the mapped file, unused for unchanged entries
+     */
+    record Entry(long contentHash, int contentLength, byte kind, int data, int dataLength) {
+        public boolean unchanged() {
+            return kind == UNCHANGED;
+        }
+    }
+
+    private TransformCache(FileChannel channel, MappedByteBuffer mapped, long end) {
+        this.channel = channel;
+        this.mapped = mapped;
+        this.end = end;
+    }
+
+    /**
+     * Opens the cache for the given visitors, starting over if it was written under a different
+     * fingerprint. Returns null if the file can't be used at all, transforming then simply runs uncached.
+     */
+    public static TransformCache open(List<String> visitorIds) {
+        byte[] fingerprint = fingerprint(visitorIds);
+        try {
+            Files.createDirectories(CACHE_PATH.getParent());
+            FileChannel channel = FileChannel.open(CACHE_PATH,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            if (!hasHeader(channel, fingerprint)) {
+                if (channel.size() > 0) {
+                    LOGGER.info("Transform cache was written for a different setup, starting over");
+                }
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT).put(fingerprint).flip();
+                writeFully(channel, header, 0);
+            }
+
+            // Records appended during this boot are never looked up again, the mapping covers the rest
+            long size = Math.min(channel.size(), MAX_SIZE);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            TransformCache cache = new TransformCache(channel, mapped, HEADER_SIZE);
+            cache.index();
+            LOGGER.info("Transform cache holds {} classes", cache.entries.size());
+            return cache;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Transform cache unavailable, transforming every class: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Puts the visitors built by {@code visitors} behind a node that buffers the incoming class. On a hit
+     * the cached output goes to {@code next} and the visitors never run, on a miss they run and their
+     * output is stored.
+     */
+    public ClassVisitor wrap(String className, ClassVisitor next, Function<ClassVisitor, ClassVisitor> visitors) {
+        return new KeyingClassNode(this, className.replace('/', '.'), next, visitors);
+    }
+
+    /**
+     * @return what an earlier boot made of this exact input, or null if it is not cached
+     */
+    Entry lookup(String className, byte[] incoming) {
+        Entry entry = entries.get(className);
+        if (entry == null || entry.contentLength != incoming.length || entry.contentHash != contentHash(incoming)) {
+            return null;
+        }
+        return entry;
+    }
+
+    byte[] transformed(Entry entry) {
+        byte[] transformed = new byte[entry.dataLength];
+        mapped.get(entry.data, transformed);
+        return transformed;
+    }
+
+    /**
+     * @param transformed the visitors' output, or null if they left the class as it was
+     */
+    synchronized void store(String className, byte[] original, byte[] transformed) {
+        byte[] name = className.getBytes(StandardCharsets.UTF_8);
+        int dataLength = transformed == null ? 0 : transformed.length;
+        int payloadLength = 2 + name.length + 8 + 4 + 1 + dataLength;
+        if (full || end + 8 + payloadLength > MAX_SIZE) {
+            if (!full) {
+                full = true;
+                LOGGER.info("Transform cache reached {} MB, not caching further classes", MAX_SIZE >> 20);
+            }
+            return;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength)
+                .putShort((short) name.length)
+                .put(name)
+                .putLong(contentHash(original))
+                .putInt(original.length)
+                .put(transformed == null ? UNCHANGED : TRANSFORMED);
+        if (transformed != null) {
+            payload.put(transformed);
+        }
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(8 + payloadLength).putInt(payloadLength).putInt((int) crc.getValue()).put(payload).flip();
+        try {
+            writeFully(channel, record, end);
+            end += record.capacity();
+        } catch (IOException e) {
+            full = true;
+            LOGGER.warn("Failed to append to the transform cache, not caching further classes: {}", e.getMessage());
+        }
+    }
+
+    private void index() {
+        int position = HEADER_SIZE;
+        int limit = mapped.capacity();
+        CRC32 crc = new CRC32();
+        while (position + 8 <= limit) {
+            int payloadLength = mapped.getInt(position);
+            int start = position + 8;
+            if (payloadLength < 15 || payloadLength > limit - start) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(mapped.slice(start, payloadLength));
+            if ((int) crc.getValue() != mapped.getInt(position + 4)) {
+                break;
+            }
+
+            int nameLength = mapped.getShort(start) & 0xFFFF;
+            byte[] name = new byte[nameLength];
+            mapped.get(start + 2, name);
+            int fields = start + 2 + nameLength;
+            int data = fields + 8 + 4 + 1;
+            entries.put(new String(name, StandardCharsets.UTF_8), new Entry(
+                    mapped.getLong(fields),
+                    mapped.getInt(fields + 8),
+                    mapped.get(fields + 12),
+                    data,
+                    start + payloadLength - data));
+            position = start + payloadLength;
+        }
+        // Anything after the last good record is overwritten by the next append
+        end = position;
+    }
+
+    private static boolean hasHeader(FileChannel channel, byte[] fingerprint) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Keep reading until the header is complete
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT) {
+            return false;
+        }
+        byte[] stored = new byte[32];
+        header.get(stored);
+        return Arrays.equals(stored, fingerprint);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    // 64 bits out of two independent hashes, on top of the length and the class name
+    private static long contentHash(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (crc.getValue() << 32) | (Arrays.hashCode(bytes) & 0xFFFFFFFFL);
+    }
+
+    private static byte[] fingerprint(List<String> visitorIds) {
+        StringBuilder source = new StringBuilder()
+                .append(FORMAT).append('\n')
+                .append(visitorIds).append('\n')
+                .append(new Gson().toJson(ModConfig.INSTANCE)).append('\n');
+        try {
+            FabricLoader.getInstance().getAllMods().stream()
+                    .map(mod -> mod.getMetadata().getId() + "@" + mod.getMetadata().getVersion().getFriendlyString())
+                    .sorted()
+                    .forEach(mod -> source.append(mod).append('\n'));
+        } catch (RuntimeException e) {
+            source.append("unknown mods\n");
+        }
+
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be present", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package de.zonlykroks.asmplayground.visitor.timing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bookkeeping for one class passing through one measured visitor. The front wrapper sees what goes
+ * into the visitor, the back wrapper what comes out and how long the visitors after it took.
+ */
+final class ClassTiming {
+    final TransformMetrics metrics;
+    String className;
+
+    private long frontNanos;
+    private long backNanos;
+    int methodsRewritten;
+    int callSitesReplaced;
+
+    private final Map<String, MethodProbe> methods = new HashMap<>();
+
+    ClassTiming(TransformMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    MethodProbe probe(String name, String descriptor) {
+        return methods.computeIfAbsent(name + descriptor, key -> new MethodProbe());
+    }
+
+    void add(boolean front, long nanos) {
+        if (front) {
+            frontNanos += nanos;
+        } else {
+            backNanos += nanos;
+        }
+    }
+
+    long ownNanos() {
+        return Math.max(0L, frontNanos - backNanos);
+    }
+
+    void finish() {
+        for (MethodProbe probe : methods.values()) {
+            if (probe.changed()) {
+                methodsRewritten++;
+                callSitesReplaced += probe.replacedCallSites();
+            }
+        }
+        metrics.record(this);
+    }
+
+    /**
+     * Hashes the instructions of one method on the way in and on the way out, labels, frames and
+     * debug info left out since visitors may rebuild those without changing the code.
+     */
+    static final class MethodProbe {
+        boolean seenIn;
+        boolean seenOut;
+        private long inHash = 1;
+        private long outHash = 1;
+        private final Map<String, Integer> invokesIn = new HashMap<>();
+        private final Map<String, Integer> invokesOut = new HashMap<>();
+
+        void mix(boolean front, long part) {
+            if (front) {
+                inHash = inHash * 0x9E3779B97F4A7C15L + part;
+            } else {
+                outHash = outHash * 0x9E3779B97F4A7C15L + part;
+            }
+        }
+
+        void invoke(boolean front, String call) {
+            (front ? invokesIn : invokesOut).merge(call, 1, Integer::sum);
+            mix(front, call.hashCode());
+        }
+
+        boolean changed() {
+            return seenIn != seenOut || inHash != outHash;
+        }
+
+        // Calls that went in and did not come out, a redirect or a fused call each count once
+        int replacedCallSites() {
+            int replaced = 0;
+            for (Map.Entry<String, Integer> entry : invokesIn.entrySet()) {
+                replaced += Math.max(0, entry.getValue() - invokesOut.getOrDefault(entry.getKey(), 0));
+            }
+            return replaced;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.zonlykroks.asmplayground.visitor.timing;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Placed in front of (front = true) and behind a measured visitor. The time the visitor took is the
+ * front's time minus the back's, which covers every visitor further down the chain.
+ */
+final class TimedClassVisitor extends ClassVisitor {
+    private final ClassTiming timing;
+    private final boolean front;
+
+    TimedClassVisitor(ClassVisitor classVisitor, ClassTiming timing, boolean front) {
+        super(Opcodes.ASM9, classVisitor);
+        this.timing = timing;
+        this.front = front;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        if (front) {
+            timing.className = name;
+        }
+        long start = System.nanoTime();
+        super.visit(version, access, name, signature, superName, interfaces);
+        timing.add(front, System.nanoTime() - start);
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        long start = System.nanoTime();
+        FieldVisitor fv = super.visitField(access, name, descriptor, signature, value);
+        timing.add(front, System.nanoTime() - start);
+        return fv;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        ClassTiming.MethodProbe probe = timing.probe(name, descriptor);
+        if (front) {
+            probe.seenIn = true;
+        } else {
+            probe.seenOut = true;
+        }
+
+        long start = System.nanoTime();
+        MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+        timing.add(front, System.nanoTime() - start);
+        return mv == null ? null : new TimedMethodVisitor(mv, timing, probe, front);
+    }
+
+    @Override
+    public void visitEnd() {
+        long start = System.nanoTime();
+        super.visitEnd();
+        timing.add(front, System.nanoTime() - start);
+
+        if (front) {
+            timing.finish();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package de.zonlykroks.asmplayground.visitor.timing;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.Arrays;
+
+/**
+ * Method level counterpart of {@link TimedClassVisitor}. Times every event and feeds the
+ * instructions into the method's probe; the front hashes before its clock starts, the back inside
+ * it, so hashing never counts towards the measured visitor.
+ */
+final class TimedMethodVisitor extends MethodVisitor {
+    private final ClassTiming timing;
+    private final ClassTiming.MethodProbe probe;
+    private final boolean front;
+
+    TimedMethodVisitor(MethodVisitor methodVisitor, ClassTiming timing, ClassTiming.MethodProbe probe, boolean front) {
+        super(Opcodes.ASM9, methodVisitor);
+        this.timing = timing;
+        this.probe = probe;
+        this.front = front;
+    }
+
+    private long enter(long part) {
+        if (front) {
+            probe.mix(true, part);
+            return System.nanoTime();
+        }
+        long start = System.nanoTime();
+        probe.mix(false, part);
+        return start;
+    }
+
+    private long enterInvoke(String call) {
+        if (front) {
+            probe.invoke(true, call);
+            return System.nanoTime();
+        }
+        long start = System.nanoTime();
+        probe.invoke(false, call);
+        return start;
+    }
+
+    private void exit(long start) {
+        timing.add(front, System.nanoTime() - start);
+    }
+
+    @Override
+    public void visitCode() {
+        long start = System.nanoTime();
+        super.visitCode();
+        exit(start);
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+        long start = enter(opcode);
+        super.visitInsn(opcode);
+        exit(start);
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+        long start = enter(opcode * 31L + operand);
+        super.visitIntInsn(opcode, operand);
+        exit(start);
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int varIndex) {
+        long start = enter(opcode * 31L + varIndex);
+        super.visitVarInsn(opcode, varIndex);
+        exit(start);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+        long start = enter(opcode * 31L + type.hashCode());
+        super.visitTypeInsn(opcode, type);
+        exit(start);
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+        long start = enter(opcode * 31L + (owner + '.' + name + descriptor).hashCode());
+        super.visitFieldInsn(opcode, owner, name, descriptor);
+        exit(start);
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        long start = enterInvoke(opcode + " " + owner + '.' + name + descriptor);
+        super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        exit(start);
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+        long start = enterInvoke("indy " + bootstrapMethodHandle.getOwner() + '.' + bootstrapMethodHandle.getName() + ' ' + name + descriptor);
+        super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        exit(start);
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+        long start = enter(opcode);
+        super.visitJumpInsn(opcode, label);
+        exit(start);
+    }
+
+    @Override
+    public void visitLabel(Label label) {
+        long start = System.nanoTime();
+        super.visitLabel(label);
+        exit(start);
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+        long start = enter(Opcodes.LDC * 31L + value.hashCode());
+        super.visitLdcInsn(value);
+        exit(start);
+    }
+
+    @Override
+    public void visitIincInsn(int varIndex, int increment) {
+        long start = enter(Opcodes.IINC * 31L * 31L + varIndex * 31L + increment);
+        super.visitIincInsn(varIndex, increment);
+        exit(start);
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+        long start = enter(Opcodes.TABLESWITCH * 31L * 31L + min * 31L + max);
+        super.visitTableSwitchInsn(min, max, dflt, labels);
+        exit(start);
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+        long start = enter(Opcodes.LOOKUPSWITCH * 31L + Arrays.hashCode(keys));
+        super.visitLookupSwitchInsn(dflt, keys, labels);
+        exit(start);
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        long start = enter(Opcodes.MULTIANEWARRAY * 31L * 31L + descriptor.hashCode() * 31L + numDimensions);
+        super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        exit(start);
+    }
+
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        long begin = enter(type == null ? 0 : type.hashCode());
+        super.visitTryCatchBlock(start, end, handler, type);
+        exit(begin);
+    }
+
+    @Override
+    public void visitFrame(int type, int numLocal, Object[] local, int numStack, Object[] stack) {
+        long start = System.nanoTime();
+        super.visitFrame(type, numLocal, local, numStack, stack);
+        exit(start);
+    }
+
+    @Override
+    public void visitMaxs(int maxStack, int maxLocals) {
+        long start = System.nanoTime();
+        super.visitMaxs(maxStack, maxLocals);
+        exit(start);
+    }
+
+    @Override
+    public void visitEnd() {
+        long start = System.nanoTime();
+        super.visitEnd();
+        exit(start);
+    }
+}
@@ -0,0 +1,35 @@
+package de.zonlykroks.asmplayground.visitor.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One class passing through one of our visitors. Recorded for every class a visitor changed and for
+ * any class it spent more than {@link TransformMetrics#SLOW_CLASS_NANOS} on.
+ */
+@Name("asmplayground.ClassTransform")
+@Label("Class Transform")
+@Category({"ASM Playground", "Transform"})
+@Description("Time one visitor spent on one class, without the visitors after it")
+@StackTrace(false)
+final class TransformEvent extends jdk.jfr.Event {
+    @Label("Visitor")
+    String visitor;
+
+    @Label("Class")
+    String className;
+
+    @Label("Methods Rewritten")
+    int methodsRewritten;
+
+    @Label("Call Sites Replaced")
+    int callSitesReplaced;
+
+    @Label("Visitor Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+}
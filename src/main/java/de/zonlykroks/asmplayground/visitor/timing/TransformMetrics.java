@@ -0,0 +1,112 @@
+package de.zonlykroks.asmplayground.visitor.timing;
+
+import de.zonlykroks.asmplayground.impl.ModConfig;
+import de.zonlykroks.asmplayground.visitor.FloorCastTransformer;
+import de.zonlykroks.asmplayground.visitor.SinCosFusionTransformer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassVisitor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * What one registered visitor cost at class-load time: classes it saw, methods and call sites it
+ * changed and the time spent inside it. Only collected with profileTransformers enabled, the
+ * wrappers put two extra visitors around every transformer.
+ */
+public final class TransformMetrics {
+    private static final Logger LOGGER = LogManager.getLogger("asm-playground");
+
+    // Classes a visitor spends longer than this on always show up in JFR, changed or not
+    static final long SLOW_CLASS_NANOS = 1_000_000L;
+
+    private static final List<TransformMetrics> ALL = new CopyOnWriteArrayList<>();
+
+    final String id;
+    final LongAdder classes = new LongAdder();
+    final LongAdder classesChanged = new LongAdder();
+    final LongAdder methodsRewritten = new LongAdder();
+    final LongAdder callSitesReplaced = new LongAdder();
+    final LongAdder nanos = new LongAdder();
+
+    private TransformMetrics(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Wraps a visitor factory so every visitor it creates is measured under the given id. Returns
+     * the factory unchanged when profiling is off.
+     */
+    public static Function<ClassVisitor, ClassVisitor> track(String id, Function<ClassVisitor, ClassVisitor> factory) {
+        if (!ModConfig.INSTANCE.profileTransformers) {
+            return factory;
+        }
+
+        TransformMetrics metrics = new TransformMetrics(id);
+        ALL.add(metrics);
+        return next -> {
+            ClassTiming timing = new ClassTiming(metrics);
+            ClassVisitor visitor = factory.apply(new TimedClassVisitor(next, timing, false));
+            return new TimedClassVisitor(visitor, timing, true);
+        };
+    }
+
+    void record(ClassTiming timing) {
+        classes.increment();
+        nanos.add(timing.ownNanos());
+        if (timing.methodsRewritten > 0) {
+            classesChanged.increment();
+            methodsRewritten.add(timing.methodsRewritten);
+            callSitesReplaced.add(timing.callSitesReplaced);
+        }
+
+        if (timing.methodsRewritten > 0 || timing.ownNanos() >= SLOW_CLASS_NANOS) {
+            TransformEvent event = new TransformEvent();
+            if (event.isEnabled()) {
+                event.visitor = id;
+                event.className = timing.className;
+                event.methodsRewritten = timing.methodsRewritten;
+                event.callSitesReplaced = timing.callSitesReplaced;
+                event.nanos = timing.ownNanos();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Logs what the visitors changed and, when profiling, what every visitor cost so far. Called once the
+     * server finished loading, the visitors themselves only log per class at debug level.
+     */
+    public static void logSummary() {
+        LOGGER.info("Fused {} sin/cos pair(s) and rewrote {} floor cast(s) since boot",
+                SinCosFusionTransformer.fusedSites(), FloorCastTransformer.rewrittenSites());
+
+        if (ALL.isEmpty()) {
+            return;
+        }
+
+        long totalNanos = 0;
+        StringBuilder table = new StringBuilder("Transformer cost since boot:\n");
+        table.append(String.format("  %-30s %9s %9s %9s %11s %10s %9s%n",
+                "visitor", "classes", "changed", "methods", "call sites", "total ms", "us/class"));
+        for (TransformMetrics metrics : ALL) {
+            long classes = metrics.classes.sum();
+            long nanos = metrics.nanos.sum();
+            totalNanos += nanos;
+            table.append(String.format("  %-30s %9d %9d %9d %11d %10.1f %9.2f%n",
+                    metrics.id,
+                    classes,
+                    metrics.classesChanged.sum(),
+                    metrics.methodsRewritten.sum(),
+                    metrics.callSitesReplaced.sum(),
+                    nanos / 1.0E6,
+                    classes == 0 ? 0.0 : nanos / 1.0E3 / classes));
+        }
+        table.append(String.format("  %-30s %52.1f", "total", totalNanos / 1.0E6));
+
+        LOGGER.info(table.toString());
+    }
+}
@@ -0,0 +1,140 @@
+package de.zonlykroks.asmplayground.math.batch;
+
+import de.zonlykroks.asmplayground.impl.modes.SinRedirectMode;
+import de.zonlykroks.asmplayground.math.FastMath;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@code jdk.incubator.vector} kernels on the widest species the CPU supports.
+ * <p>
+ * sin/cos evaluate the TAYLOR series lane-wise after a two-constant reduction by 2π, which keeps
+ * the full x^17 series accuracy. While the configured mode is JDK or APACHE they defer to the scalar
+ * kernels instead, those modes are picked for their exactness. The tail that does not fill a whole
+ * vector runs masked, so every element goes through the same kernel.
+ * </p>
+ */
+public class VectorBatchKernels implements BatchKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // 2π split into a 33-bit high part and the remainder (fdlibm's pio2_1 / pio2_1t times four),
+    // so n * TWO_PI_HI stays exact for any realistic number of turns n
+    private static final double TWO_PI_HI = 4 * 1.57079632673412561417e+00;
+    private static final double TWO_PI_LO = 4 * 6.07710050650619224932e-11;
+    private static final double INV_TWO_PI = 1.0 / (2 * Math.PI);
+    private static final double HALF_PI = Math.PI / 2;
+    // Adding and subtracting 1.5 * 2^52 rounds to the nearest integer for |x| < 2^51
+    private static final double ROUND = 0x1.8p52;
+
+    // (-1)^k / (2k + 1)! for k = 1..8, highest order first
+    private static final double[] SIN_COEFFICIENTS = {
+            1.0 / 355687428096000.0,
+            -1.0 / 1307674368000.0,
+            1.0 / 6227020800.0,
+            -1.0 / 39916800.0,
+            1.0 / 362880.0,
+            -1.0 / 5040.0,
+            1.0 / 120.0,
+            -1.0 / 6.0
+    };
+
+    private final ScalarBatchKernels scalar = new ScalarBatchKernels();
+
+    @Override
+    public String name() {
+        return "vector " + SPECIES;
+    }
+
+    @Override
+    public void sin(double[] in, double[] out, int from, int to) {
+        if (exactModeSelected()) {
+            scalar.sin(in, out, from, to);
+            return;
+        }
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            sin(DoubleVector.fromArray(SPECIES, in, i)).intoArray(out, i);
+        }
+        if (i < to) {
+            VectorMask<Double> mask = SPECIES.indexInRange(i, to);
+            sin(DoubleVector.fromArray(SPECIES, in, i, mask)).intoArray(out, i, mask);
+        }
+    }
+
+    @Override
+    public void cos(double[] in, double[] out, int from, int to) {
+        if (exactModeSelected()) {
+            scalar.cos(in, out, from, to);
+            return;
+        }
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            sin(DoubleVector.fromArray(SPECIES, in, i).add(HALF_PI)).intoArray(out, i);
+        }
+        if (i < to) {
+            VectorMask<Double> mask = SPECIES.indexInRange(i, to);
+            sin(DoubleVector.fromArray(SPECIES, in, i, mask).add(HALF_PI)).intoArray(out, i, mask);
+        }
+    }
+
+    @Override
+    public void sqrt(double[] in, double[] out, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, in, i).lanewise(VectorOperators.SQRT).intoArray(out, i);
+        }
+        if (i < to) {
+            VectorMask<Double> mask = SPECIES.indexInRange(i, to);
+            DoubleVector.fromArray(SPECIES, in, i, mask).lanewise(VectorOperators.SQRT).intoArray(out, i, mask);
+        }
+    }
+
+    @Override
+    public void normalize(double[] x, double[] y, double[] z, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            normalize(x, y, z, i, SPECIES.maskAll(true));
+        }
+        if (i < to) {
+            normalize(x, y, z, i, SPECIES.indexInRange(i, to));
+        }
+    }
+
+    private static boolean exactModeSelected() {
+        SinRedirectMode mode = FastMath.sinMode();
+        return mode == SinRedirectMode.JDK || mode == SinRedirectMode.APACHE;
+    }
+
+    private static void normalize(double[] x, double[] y, double[] z, int i, VectorMask<Double> mask) {
+        DoubleVector vx = DoubleVector.fromArray(SPECIES, x, i, mask);
+        DoubleVector vy = DoubleVector.fromArray(SPECIES, y, i, mask);
+        DoubleVector vz = DoubleVector.fromArray(SPECIES, z, i, mask);
+
+        // Same evaluation order as Vec3.normalize, no fused multiply-add, so results match it bit for bit
+        DoubleVector length = vx.mul(vx).add(vy.mul(vy)).add(vz.mul(vz)).lanewise(VectorOperators.SQRT);
+        VectorMask<Double> tooShort = length.compare(VectorOperators.LT, 1.0E-5F);
+
+        vx.div(length).blend(0.0, tooShort).intoArray(x, i, mask);
+        vy.div(length).blend(0.0, tooShort).intoArray(y, i, mask);
+        vz.div(length).blend(0.0, tooShort).intoArray(z, i, mask);
+    }
+
+    private static DoubleVector sin(DoubleVector x) {
+        // Reduce into [-π, π]
+        DoubleVector turns = x.mul(INV_TWO_PI).add(ROUND).sub(ROUND);
+        DoubleVector r = x.sub(turns.mul(TWO_PI_HI)).sub(turns.mul(TWO_PI_LO));
+
+        // Mirror into [-π/2, π/2], sin(x) = sin(π - x) = sin(-π - x)
+        r = r.blend(r.neg().add(Math.PI), r.compare(VectorOperators.GT, HALF_PI));
+        r = r.blend(r.neg().sub(Math.PI), r.compare(VectorOperators.LT, -HALF_PI));
+
+        DoubleVector r2 = r.mul(r);
+        DoubleVector p = DoubleVector.broadcast(SPECIES, SIN_COEFFICIENTS[0]);
+        for (int k = 1; k < SIN_COEFFICIENTS.length; k++) {
+            p = p.mul(r2).add(SIN_COEFFICIENTS[k]);
+        }
+        return r.add(r.mul(r2).mul(p));
+    }
+}